@@ -0,0 +1,14 @@
+package com.api.interfaces.yll.common.web;
+
+import com.engine.interfaces.yll.common.web.CacheMetricsAction;
+
+import javax.ws.rs.Path;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存统计接口，只允许系统管理员访问
+ * @date 2026/10/17
+ **/
+@Path("/second-dev/cache/metrics")
+public class CacheMetricsApi extends CacheMetricsAction {
+}
@@ -2,8 +2,8 @@ package com.customization.yll.common;
 
 import cn.hutool.core.util.StrUtil;
 import com.customization.yll.common.constants.FieldType;
+import com.customization.yll.common.util.FieldUtil;
 import com.customization.yll.common.util.HrmInfoUtil;
-import com.customization.yll.common.util.WorkflowUtil;
 import weaver.conn.RecordSet;
 import weaver.integration.logging.Logger;
 import weaver.integration.logging.LoggerFactory;
@@ -26,19 +26,8 @@ public class FieldShowValueConverter {
         RecordSet recordSet = new RecordSet();
         switch (fieldType) {
             case OWN_SELECTOR:
-                if (fieldValue.contains(",")) {
-                    return Arrays.stream(fieldValue.split(",")).map(i ->
-                            WorkflowUtil.getSelectItemShowName( fieldId,
-                                    Integer.parseInt(i), recordSet)).collect(Collectors.joining(","));
-                }
-                return WorkflowUtil.getSelectItemShowName(fieldId, Integer.parseInt(fieldValue), recordSet);
             case PUBLIC_SELECTOR:
-                if (fieldValue.contains(",")) {
-                    return Arrays.stream(fieldValue.split(",")).map(i ->
-                            WorkflowUtil.getPublicSelectorShowName(fieldId,
-                                    Integer.parseInt(i), recordSet)).collect(Collectors.joining(","));
-                }
-                return WorkflowUtil.getPublicSelectorShowName(fieldId, Integer.parseInt(fieldValue), recordSet);
+                return FieldUtil.resolveShowNames(fieldId, fieldValue);
             case SINGLE_HRM_BROWSER:
                 return HrmInfoUtil.getLastName(Integer.valueOf(fieldValue), recordSet);
             case MULTI_HRM_BROWSER:
@@ -69,9 +58,7 @@ public class FieldShowValueConverter {
     }
 
     private String getDepartmentName(String departmentId, RecordSet recordSet) {
-        recordSet.executeQuery("select DEPARTMENTNAME from hrmdepartment where id =?", departmentId);
-        recordSet.next();
-        return recordSet.getString("DEPARTMENTNAME");
+        return HrmInfoUtil.getDepartmentName(Integer.parseInt(departmentId.trim()), recordSet);
     }
 
     private String getModeBrowserFieldShowName(String value,int fieldId, RecordSet recordSet) {
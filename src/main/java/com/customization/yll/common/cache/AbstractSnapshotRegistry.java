@@ -0,0 +1,242 @@
+package com.customization.yll.common.cache;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.customization.yll.common.util.CacheUtil;
+import org.jetbrains.annotations.Nullable;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 姚礼林
+ * @desc 本地快照注册表，将很少变化的元数据一次性批量加载为不可变快照，读取时直接访问内存。<br>
+ * 开启后第一次读取时加载，之后由后台线程按间隔检查数据是否变化，变化时重新加载并整体替换快照，
+ * 读取的一方不会看到加载了一半的数据。检查无法发现的修改（例如只修改已有行）可以通过设置全量重新加载间隔兜底。通过 {@link #refresh()} 或子类的失效方法可以主动重新加载，
+ * 会通过 {@link CacheUtil} 的缓存失效广播通知其他节点。<br>
+ * 未开启或加载失败时 {@link #getSnapshot()} 返回 null，调用方应回退到直接查询数据库
+ * @date 2026/10/17
+ **/
+public abstract class AbstractSnapshotRegistry<S> {
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+    private static final String INVALIDATION_KEY_PREFIX = "snapshot:";
+    /**
+     * 加载失败后，间隔此时间再重试，单位毫秒
+     */
+    private static final long LOAD_RETRY_MILLIS = 30_000;
+    private final String name;
+    private final String invalidationKey;
+    private volatile boolean enabled;
+    @Nullable
+    private volatile S snapshot;
+    private volatile long nextLoadTime;
+    /**
+     * 全量重新加载的间隔，单位毫秒，为 0 表示只按检查结果重新加载
+     */
+    private volatile long fullReloadMillis;
+    private volatile long lastFullLoadTime;
+    @Nullable
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param name 注册表名称，用于线程名称、日志和缓存失效key，不同注册表不能重复
+     */
+    protected AbstractSnapshotRegistry(String name) {
+        this.name = name;
+        this.invalidationKey = INVALIDATION_KEY_PREFIX + name;
+        CacheUtil.addInvalidationListener(this::onInvalidate);
+    }
+
+    /**
+     * 开启注册表
+     *
+     * @param checkIntervalSeconds 检查数据变化的间隔，单位秒
+     */
+    public void enable(int checkIntervalSeconds) {
+        enable(checkIntervalSeconds, 0);
+    }
+
+    /**
+     * 开启注册表，并按间隔全量重新加载，用于检查数据变化时无法发现的修改
+     *
+     * @param checkIntervalSeconds 检查数据变化的间隔，单位秒
+     * @param fullReloadSeconds    全量重新加载的间隔，单位秒，为 0 时不全量重新加载
+     */
+    public synchronized void enable(int checkIntervalSeconds, int fullReloadSeconds) {
+        if (checkIntervalSeconds < 1) {
+            throw new IllegalArgumentException("[checkIntervalSeconds] 必需大于 0");
+        }
+        if (fullReloadSeconds < 0) {
+            throw new IllegalArgumentException("[fullReloadSeconds] 不能小于 0");
+        }
+        fullReloadMillis = fullReloadSeconds * 1000L;
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory(name + "-snapshot", true));
+        service.scheduleWithFixedDelay(this::check, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+        checker = service;
+        enabled = true;
+        log.info(name + " 快照已开启，检查间隔（秒）：" + checkIntervalSeconds);
+    }
+
+    /**
+     * 关闭注册表并释放快照
+     */
+    public synchronized void disable() {
+        enabled = false;
+        if (checker != null) {
+            checker.shutdownNow();
+            checker = null;
+        }
+        snapshot = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取当前快照，第一次调用时加载
+     *
+     * @return 当前快照，未开启或加载失败时返回 null
+     */
+    @Nullable
+    public S getSnapshot() {
+        S current = snapshot;
+        if (current != null || !enabled) {
+            return current;
+        }
+        return loadIfAbsent();
+    }
+
+    /**
+     * 重新加载全部数据，开启失效广播时其他节点也会重新加载
+     */
+    public void refresh() {
+        CacheUtil.deleteCache(invalidationKey);
+    }
+
+    /**
+     * 部分数据失效，开启失效广播时其他节点也会重新加载，重新加载时调用 {@link #reload(Object, String)}
+     *
+     * @param subKey 失效的数据标识，由子类定义
+     */
+    protected void invalidate(String subKey) {
+        CacheUtil.deleteCache(invalidationKey + ":" + subKey);
+    }
+
+    /**
+     * 加载全部数据
+     *
+     * @return 快照
+     */
+    protected abstract S loadAll();
+
+    /**
+     * 检查数据是否变化，由后台线程按间隔调用
+     *
+     * @param current 当前快照
+     * @return 变化后的新快照，没有变化返回 null
+     */
+    @Nullable
+    protected abstract S checkForChanges(S current);
+
+    /**
+     * 重新加载部分数据，默认重新加载全部数据
+     *
+     * @param current 当前快照
+     * @param subKey  失效的数据标识
+     * @return 新快照
+     */
+    protected S reload(S current, String subKey) {
+        return loadAll();
+    }
+
+    private synchronized S loadIfAbsent() {
+        S current = snapshot;
+        if (current != null || !enabled || System.currentTimeMillis() < nextLoadTime) {
+            return current;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            current = loadAll();
+            snapshot = current;
+            lastFullLoadTime = start;
+            log.info(name + " 快照加载完成，耗时（毫秒）：" + (System.currentTimeMillis() - start));
+            return current;
+        } catch (RuntimeException e) {
+            nextLoadTime = System.currentTimeMillis() + LOAD_RETRY_MILLIS;
+            log.error(name + " 快照加载失败", e);
+            return null;
+        }
+    }
+
+    private void check() {
+        S current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            S updated;
+            if (fullReloadMillis > 0 && now - lastFullLoadTime >= fullReloadMillis) {
+                updated = loadAll();
+                lastFullLoadTime = now;
+            } else {
+                updated = checkForChanges(current);
+            }
+            if (updated != null) {
+                replace(current, updated);
+            }
+        } catch (RuntimeException e) {
+            log.error(name + " 快照检查数据变化失败", e);
+        }
+    }
+
+    private void onInvalidate(String key, boolean prefix) {
+        if (!enabled || prefix || !key.startsWith(invalidationKey)) {
+            return;
+        }
+        String subKey;
+        if (key.length() == invalidationKey.length()) {
+            subKey = null;
+        } else if (key.charAt(invalidationKey.length()) == ':') {
+            subKey = key.substring(invalidationKey.length() + 1);
+        } else {
+            return;
+        }
+        ScheduledExecutorService service = checker;
+        if (service == null) {
+            return;
+        }
+        try {
+            service.execute(() -> reloadSafely(subKey));
+        } catch (RejectedExecutionException e) {
+            log.warn(name + " 快照已关闭，忽略失效通知：" + key);
+        }
+    }
+
+    private void reloadSafely(@Nullable String subKey) {
+        S current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            replace(current, subKey == null ? loadAll() : reload(current, subKey));
+        } catch (RuntimeException e) {
+            log.error(name + " 快照重新加载失败，subKey：" + subKey, e);
+        }
+    }
+
+    private synchronized void replace(S current, S updated) {
+        // 关闭或已被其他线程替换时放弃
+        if (enabled && snapshot == current) {
+            snapshot = updated;
+        }
+    }
+}
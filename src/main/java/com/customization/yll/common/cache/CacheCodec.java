@@ -0,0 +1,38 @@
+package com.customization.yll.common.cache;
+
+import java.io.IOException;
+
+/**
+ * @author 姚礼林
+ * @desc redis 缓存值编码器，可实现此接口接入 Kryo 等序列化方式，通过
+ * {@link com.customization.yll.common.util.CacheUtil#setCacheCodec(CacheCodec)} 设置
+ * @date 2026/10/17
+ **/
+public interface CacheCodec {
+
+    /**
+     * 编码格式标识，会写入每个缓存条目的头部，读取时根据此标识选择解码器。
+     * 不同的编码器标识必需不同，0 - 15 为内置编码器保留
+     *
+     * @return 编码格式标识
+     */
+    byte id();
+
+    /**
+     * 将缓存值编码为字节
+     *
+     * @param value 缓存值，不为 null
+     * @return 编码后的字节
+     * @throws IOException 编码失败
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * 将字节解码为缓存值
+     *
+     * @param data 编码后的字节
+     * @return 缓存值
+     * @throws IOException 解码失败
+     */
+    Object decode(byte[] data) throws IOException;
+}
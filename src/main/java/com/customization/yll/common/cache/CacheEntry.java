@@ -0,0 +1,53 @@
+package com.customization.yll.common.cache;
+
+/**
+ * @author 姚礼林
+ * @desc 本地缓存条目，缓存值与过期时间保存在同一个不可变对象中，读取时只需一次查找
+ * @date 2026/10/17
+ **/
+public final class CacheEntry {
+    /**
+     * 不过期
+     */
+    public static final long NEVER_EXPIRE = Long.MAX_VALUE;
+    private final Object value;
+    private final long expireTime;
+    private final long weight;
+
+    /**
+     * @param value      缓存值
+     * @param expireTime 过期时间戳，单位毫秒，{@link #NEVER_EXPIRE} 表示不过期
+     * @param weight     估算的内存占用，单位字节
+     */
+    public CacheEntry(Object value, long expireTime, long weight) {
+        this.value = value;
+        this.expireTime = expireTime;
+        this.weight = weight;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getExpireTime() {
+        return expireTime;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public boolean isExpired(long now) {
+        return expireTime <= now;
+    }
+
+    /**
+     * 获取剩余存活时间，单位毫秒，不过期返回 {@link #NEVER_EXPIRE}
+     */
+    public long getRemainingMillis(long now) {
+        if (expireTime == NEVER_EXPIRE) {
+            return NEVER_EXPIRE;
+        }
+        return Math.max(0, expireTime - now);
+    }
+}
@@ -0,0 +1,255 @@
+package com.customization.yll.common.cache;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import weaver.conn.RecordSet;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 姚礼林
+ * @desc 集群缓存失效广播，多个节点部署时，一个节点删除缓存后通知其他节点清除本地缓存。<br>
+ * 通过数据库表传递失效事件，各节点定时轮询该表，按数据库生成的自增 id 读取上次之后的事件，不依赖各节点的时钟。<br>
+ * 多个节点并发发布时，较小 id 的事件可能晚于较大 id 的事件提交，读取时跳过的 id 会记录下来，
+ * 在 {@link #GAP_GRACE_MILLIS} 内每次轮询都重新读取，超过此时间仍未提交的事件会被忽略。
+ * oracle RAC 环境下序列需要使用 order 选项，否则各实例缓存的序列值不按提交顺序递增。
+ * 使用前需要创建表（以 mysql 为例，其他数据库使用 identity 列或序列生成 id）：
+ * <pre>
+ * create table cus_cache_invalidation (
+ *     id bigint auto_increment primary key,
+ *     cache_key varchar(500),
+ *     is_prefix int,
+ *     node_id varchar(64)
+ * );
+ * </pre>
+ * @date 2026/10/17
+ **/
+public class CacheInvalidationBus {
+    public static final String TABLE_NAME = "cus_cache_invalidation";
+    /**
+     * 事件保留时间，删除此时间之前已读取到的事件
+     */
+    private static final long EVENT_RETAIN_MILLIS = 60 * 60 * 1000L;
+    private static final long CLEAN_INTERVAL_MILLIS = 10 * 60 * 1000L;
+    /**
+     * 跳过的 id 重新读取的时间，单位毫秒
+     */
+    private static final long GAP_GRACE_MILLIS = 60 * 1000L;
+    /**
+     * 最多记录的跳过 id 区间数量，超过时丢弃最早的区间
+     */
+    private static final int MAX_GAPS = 100;
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheInvalidationListener listener;
+    private final long pollIntervalMillis;
+    /**
+     * 每次清理时读取到的最大事件id，key 为 {@link System#nanoTime()}，超过保留时间后删除 id 不大于它的事件
+     */
+    private final LinkedHashMap<Long, Long> checkpoints = new LinkedHashMap<>();
+    /**
+     * 读取时跳过的 id 区间，等待晚提交的事件
+     */
+    private final List<IdGap> gaps = new ArrayList<>();
+    /**
+     * 跳过的 id 区间中已处理的事件 id
+     */
+    private final Set<Long> gapHandledIds = new HashSet<>();
+    private ScheduledExecutorService poller;
+    /**
+     * 已读取到的最大事件id，小于 0 表示还未初始化
+     */
+    private long lastEventId = -1;
+    private long lastCleanNanos;
+    private boolean failureLogged;
+
+    /**
+     * @param listener           接收到其他节点的失效事件时调用
+     * @param pollIntervalMillis 轮询间隔，单位毫秒
+     */
+    public CacheInvalidationBus(CacheInvalidationListener listener, long pollIntervalMillis) {
+        if (pollIntervalMillis < 1) {
+            throw new IllegalArgumentException("[pollIntervalMillis] 必需大于 0");
+        }
+        this.listener = listener;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * 开始轮询其他节点的失效事件，只处理启动之后发布的事件
+     */
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        lastCleanNanos = System.nanoTime();
+        poller = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("CacheInvalidationBus", true));
+        poller.execute(() -> initLastEventId(new RecordSet()));
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("缓存失效广播已启动，节点：" + nodeId + "，轮询间隔：" + pollIntervalMillis + "ms");
+    }
+
+    /**
+     * 停止轮询
+     */
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * 发布失效事件，其他节点轮询到后清除本地缓存
+     *
+     * @param key    失效的缓存key或前缀
+     * @param prefix 是否按前缀失效
+     */
+    public void publish(String key, boolean prefix) {
+        RecordSet recordSet = new RecordSet();
+        boolean success = recordSet.executeUpdate("insert into " + TABLE_NAME
+                + " (cache_key,is_prefix,node_id) values(?,?,?)", key, prefix ? 1 : 0, nodeId);
+        if (!success) {
+            log.error("发布缓存失效事件失败，key:" + key + "，请检查 " + TABLE_NAME + " 表是否存在");
+        }
+    }
+
+    private boolean initLastEventId(RecordSet recordSet) {
+        if (!recordSet.executeQuery("select max(id) as max_id from " + TABLE_NAME)) {
+            logFailure("查询缓存失效事件失败，请检查 " + TABLE_NAME + " 表是否存在", null);
+            return false;
+        }
+        failureLogged = false;
+        lastEventId = recordSet.next() ? Convert.toLong(recordSet.getString("max_id"), 0L) : 0;
+        return true;
+    }
+
+    private void poll() {
+        try {
+            RecordSet recordSet = new RecordSet();
+            if (lastEventId < 0) {
+                initLastEventId(recordSet);
+                return;
+            }
+            expireGaps();
+            StringBuilder sql = new StringBuilder("select id,cache_key,is_prefix,node_id from " + TABLE_NAME
+                    + " where id>?");
+            List<Object> params = new ArrayList<>();
+            params.add(lastEventId);
+            for (IdGap gap : gaps) {
+                sql.append(" or (id>=? and id<=?)");
+                params.add(gap.fromId);
+                params.add(gap.toId);
+            }
+            if (!recordSet.executeQuery(sql.append(" order by id").toString(), params.toArray())) {
+                logFailure("查询缓存失效事件失败，请检查 " + TABLE_NAME + " 表是否存在", null);
+                return;
+            }
+            failureLogged = false;
+            long maxEventId = lastEventId;
+            while (recordSet.next()) {
+                long id = Convert.toLong(recordSet.getString("id"), 0L);
+                if (id > lastEventId) {
+                    if (id > maxEventId + 1) {
+                        addGap(maxEventId + 1, id - 1);
+                    }
+                    maxEventId = Math.max(maxEventId, id);
+                } else if (!gapHandledIds.add(id)) {
+                    continue;
+                }
+                if (nodeId.equals(recordSet.getString("node_id"))) {
+                    continue;
+                }
+                listener.onInvalidate(recordSet.getString("cache_key"), recordSet.getInt("is_prefix") == 1);
+            }
+            lastEventId = maxEventId;
+            cleanEvents(recordSet);
+        } catch (Exception e) {
+            logFailure("处理缓存失效事件失败", e);
+        }
+    }
+
+    private void addGap(long fromId, long toId) {
+        if (gaps.size() >= MAX_GAPS) {
+            gaps.remove(0);
+        }
+        gaps.add(new IdGap(fromId, toId, System.nanoTime()));
+    }
+
+    /**
+     * 删除超过重新读取时间的 id 区间，以及这些区间中已处理的事件 id
+     */
+    private void expireGaps() {
+        long now = System.nanoTime();
+        gaps.removeIf(gap -> now - gap.foundNanos >= TimeUnit.MILLISECONDS.toNanos(GAP_GRACE_MILLIS));
+        gapHandledIds.removeIf(id -> gaps.stream().noneMatch(gap -> gap.contains(id)));
+    }
+
+    /**
+     * 按间隔记录已读取到的最大事件id，删除保留时间之前记录的 id 及更早的事件。
+     * 只比较本节点经过的时间，不受各节点时钟不一致影响
+     */
+    private void cleanEvents(RecordSet recordSet) {
+        long now = System.nanoTime();
+        if (now - lastCleanNanos < TimeUnit.MILLISECONDS.toNanos(CLEAN_INTERVAL_MILLIS)) {
+            return;
+        }
+        lastCleanNanos = now;
+        checkpoints.put(now, lastEventId);
+        long expiredEventId = -1;
+        Iterator<Map.Entry<Long, Long>> iterator = checkpoints.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> checkpoint = iterator.next();
+            if (now - checkpoint.getKey() < TimeUnit.MILLISECONDS.toNanos(EVENT_RETAIN_MILLIS)) {
+                break;
+            }
+            expiredEventId = checkpoint.getValue();
+            iterator.remove();
+        }
+        if (expiredEventId > 0) {
+            recordSet.executeUpdate("delete from " + TABLE_NAME + " where id<=?", expiredEventId);
+        }
+    }
+
+    private void logFailure(String message, Exception e) {
+        // 表不存在时每次轮询都会失败，只记录一次，避免日志过多
+        if (failureLogged) {
+            return;
+        }
+        failureLogged = true;
+        if (e == null) {
+            log.error(message);
+        } else {
+            log.error(message, e);
+        }
+    }
+
+    private static class IdGap {
+        private final long fromId;
+        private final long toId;
+        private final long foundNanos;
+
+        IdGap(long fromId, long toId, long foundNanos) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.foundNanos = foundNanos;
+        }
+
+        boolean contains(long id) {
+            return id >= fromId && id <= toId;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.customization.yll.common.cache;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存失效监听，本节点或其他节点删除缓存时触发，用于清除本地保存的数据
+ * @date 2026/10/17
+ **/
+public interface CacheInvalidationListener {
+
+    /**
+     * 缓存失效
+     *
+     * @param key    失效的缓存key，如果 prefix 为 true 则为 key 前缀
+     * @param prefix 是否按前缀失效
+     */
+    void onInvalidate(String key, boolean prefix);
+}
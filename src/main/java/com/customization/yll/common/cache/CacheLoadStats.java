@@ -0,0 +1,22 @@
+package com.customization.yll.common.cache;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 某个 key 前缀通过 getOrLoad 加载数据的统计，耗时单位为毫秒
+ * @date 2026/10/17
+ **/
+@Data
+public class CacheLoadStats {
+    private final long count;
+    /**
+     * 加载抛出异常的次数
+     */
+    private final long failures;
+    private final double avgMillis;
+    private final double maxMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+}
@@ -0,0 +1,211 @@
+package com.customization.yll.common.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存统计，按 key 前缀和缓存层级记录命中、未命中、写入、淘汰次数以及加载耗时。<br>
+ * key 前缀的规则：包含 ":" 时取到第一个 ":"（例如 config:），否则包含 "_" 时取前两段再加 "*"
+ * （例如 DEV_SERVER_TOKEN 为 DEV_SERVER_*），都不包含时归为 other。
+ * 前缀数量超过 {@link #MAX_PREFIXES} 后新的前缀也归为 other。
+ * 记录时只比较 key 的前缀区域，不会截取字符串，已存在的前缀记录时不会创建对象
+ * @date 2026/10/17
+ **/
+public class CacheMetrics {
+    public static final String OTHER_PREFIX = "other";
+    public static final int MAX_PREFIXES = 128;
+    private static final double NANOS_PER_MILLI = 1000_000D;
+    private final PrefixMetrics other = new PrefixMetrics(OTHER_PREFIX, "", 0);
+    private volatile PrefixMetrics[] prefixes = new PrefixMetrics[0];
+
+    public void recordHit(String key, CacheTier tier) {
+        of(key).hits[tier.ordinal()].increment();
+    }
+
+    public void recordMiss(String key, CacheTier tier) {
+        of(key).misses[tier.ordinal()].increment();
+    }
+
+    public void recordPut(String key, CacheTier tier) {
+        of(key).puts[tier.ordinal()].increment();
+    }
+
+    public void recordEviction(String key, CacheTier tier) {
+        of(key).evictions[tier.ordinal()].increment();
+    }
+
+    /**
+     * 记录一次加载
+     *
+     * @param key     缓存key
+     * @param nanos   加载耗时，单位纳秒
+     * @param success 是否加载成功，抛出异常为失败
+     */
+    public void recordLoad(String key, long nanos, boolean success) {
+        PrefixMetrics metrics = of(key);
+        metrics.loadLatency.record(nanos);
+        if (!success) {
+            metrics.loadFailures.increment();
+        }
+    }
+
+    /**
+     * 获取统计快照，按前缀首次出现的顺序返回
+     *
+     * @return 各前缀的统计
+     */
+    public List<CacheMetricsSnapshot> snapshot() {
+        PrefixMetrics[] current = prefixes;
+        List<CacheMetricsSnapshot> result = new ArrayList<>(current.length + 1);
+        for (PrefixMetrics metrics : current) {
+            result.add(metrics.snapshot());
+        }
+        CacheMetricsSnapshot otherSnapshot = other.snapshot();
+        if (otherSnapshot.getLoad().getCount() > 0 || !otherSnapshot.getTiers().isEmpty()) {
+            result.add(otherSnapshot);
+        }
+        return result;
+    }
+
+    /**
+     * 清空统计
+     */
+    public synchronized void reset() {
+        prefixes = new PrefixMetrics[0];
+        other.reset();
+    }
+
+    /**
+     * 获取 key 所属的前缀
+     *
+     * @param key 缓存key
+     * @return key 前缀
+     */
+    public static String prefixOf(String key) {
+        int end = prefixEnd(key);
+        if (end < 0) {
+            return OTHER_PREFIX;
+        }
+        return isWildcard(key, end) ? key.substring(0, end) + "*" : key.substring(0, end);
+    }
+
+    private PrefixMetrics of(String key) {
+        int end = prefixEnd(key);
+        if (end < 0) {
+            return other;
+        }
+        for (PrefixMetrics metrics : prefixes) {
+            if (metrics.matches(key, end)) {
+                return metrics;
+            }
+        }
+        return register(key, end);
+    }
+
+    private synchronized PrefixMetrics register(String key, int end) {
+        PrefixMetrics[] current = prefixes;
+        for (PrefixMetrics metrics : current) {
+            if (metrics.matches(key, end)) {
+                return metrics;
+            }
+        }
+        if (current.length >= MAX_PREFIXES) {
+            return other;
+        }
+        String region = key.substring(0, end);
+        PrefixMetrics metrics = new PrefixMetrics(isWildcard(key, end) ? region + "*" : region, region, end);
+        PrefixMetrics[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = metrics;
+        prefixes = updated;
+        return metrics;
+    }
+
+    /**
+     * 获取前缀区域的结束位置（不包含），没有前缀返回 -1
+     */
+    private static int prefixEnd(String key) {
+        int colon = key.indexOf(':');
+        if (colon >= 0) {
+            return colon + 1;
+        }
+        int first = key.indexOf('_');
+        if (first < 0) {
+            return -1;
+        }
+        int second = key.indexOf('_', first + 1);
+        return (second < 0 ? first : second) + 1;
+    }
+
+    private static boolean isWildcard(String key, int end) {
+        return key.charAt(end - 1) == '_';
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[CacheTier.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static class PrefixMetrics {
+        private final String name;
+        private final String region;
+        private final int length;
+        private final LongAdder[] hits = newAdders();
+        private final LongAdder[] misses = newAdders();
+        private final LongAdder[] puts = newAdders();
+        private final LongAdder[] evictions = newAdders();
+        private final LongAdder loadFailures = new LongAdder();
+        private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+        PrefixMetrics(String name, String region, int length) {
+            this.name = name;
+            this.region = region;
+            this.length = length;
+        }
+
+        boolean matches(String key, int end) {
+            return end == length && key.regionMatches(0, region, 0, length);
+        }
+
+        CacheMetricsSnapshot snapshot() {
+            Map<String, CacheTierStats> tiers = new LinkedHashMap<>();
+            for (CacheTier tier : CacheTier.values()) {
+                int i = tier.ordinal();
+                CacheTierStats stats = new CacheTierStats(hits[i].sum(), misses[i].sum(), puts[i].sum(),
+                        evictions[i].sum());
+                if (stats.getHits() + stats.getMisses() + stats.getPuts() + stats.getEvictions() > 0) {
+                    tiers.put(tier.name(), stats);
+                }
+            }
+            long count = loadLatency.getCount();
+            CacheLoadStats load = new CacheLoadStats(count, loadFailures.sum(),
+                    count == 0 ? 0 : toMillis(loadLatency.getTotalNanos()) / count,
+                    toMillis(loadLatency.getMaxNanos()),
+                    toMillis(loadLatency.getPercentileNanos(50)),
+                    toMillis(loadLatency.getPercentileNanos(90)),
+                    toMillis(loadLatency.getPercentileNanos(99)));
+            return new CacheMetricsSnapshot(name, tiers, load);
+        }
+
+        void reset() {
+            for (LongAdder[] adders : Arrays.asList(hits, misses, puts, evictions)) {
+                for (LongAdder adder : adders) {
+                    adder.reset();
+                }
+            }
+            loadFailures.reset();
+            loadLatency.reset();
+        }
+    }
+}
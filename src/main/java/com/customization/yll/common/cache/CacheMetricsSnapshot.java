@@ -0,0 +1,23 @@
+package com.customization.yll.common.cache;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 某个 key 前缀的缓存统计快照
+ * @date 2026/10/17
+ **/
+@Data
+public class CacheMetricsSnapshot {
+    /**
+     * key 前缀，例如 config:、DEV_SERVER_*
+     */
+    private final String prefix;
+    /**
+     * 各缓存层级的统计，key 为层级名称，见 {@link CacheTier}，只包含有记录的层级
+     */
+    private final Map<String, CacheTierStats> tiers;
+    private final CacheLoadStats load;
+}
@@ -0,0 +1,65 @@
+package com.customization.yll.common.cache;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存值内存占用估算，只做粗略估算，用于限制本地缓存的内存占用，不追求精确
+ * @date 2026/10/17
+ **/
+@UtilityClass
+public class CacheSizeEstimator {
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int DEFAULT_OBJECT_SIZE = 64;
+    /**
+     * 集合嵌套超过此深度后不再继续计算，按默认对象大小估算
+     */
+    private static final int MAX_DEPTH = 4;
+
+    /**
+     * 估算对象占用的字节数
+     *
+     * @param value 缓存值
+     * @return 估算的字节数
+     */
+    public static long estimate(Object value) {
+        return estimate(value, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return OBJECT_HEADER + 24L + ((String) value).length() * 2L;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return OBJECT_HEADER + 8L;
+        }
+        if (value instanceof byte[]) {
+            return OBJECT_HEADER + (long) ((byte[]) value).length;
+        }
+        if (depth >= MAX_DEPTH) {
+            return DEFAULT_OBJECT_SIZE;
+        }
+        if (value instanceof Collection) {
+            long size = OBJECT_HEADER + 24L;
+            for (Object item : (Collection<?>) value) {
+                size += REFERENCE + estimate(item, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = OBJECT_HEADER + 32L;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32L + estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        return DEFAULT_OBJECT_SIZE;
+    }
+}
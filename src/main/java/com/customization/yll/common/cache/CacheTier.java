@@ -0,0 +1,21 @@
+package com.customization.yll.common.cache;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存层级
+ * @date 2026/10/17
+ **/
+public enum CacheTier {
+    /**
+     * 使用 redis 时，放在 redis 前面的本地近端缓存
+     */
+    NEAR,
+    /**
+     * 没有 redis 时使用的本地缓存
+     */
+    LOCAL,
+    /**
+     * redis 缓存
+     */
+    REDIS
+}
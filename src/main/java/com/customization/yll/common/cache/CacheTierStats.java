@@ -0,0 +1,27 @@
+package com.customization.yll.common.cache;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 某个 key 前缀在一个缓存层级的统计
+ * @date 2026/10/17
+ **/
+@Data
+public class CacheTierStats {
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    /**
+     * 因容量不足或过期被移除的条目数量，不包括主动删除
+     */
+    private final long evictions;
+
+    /**
+     * 获取命中率，没有读取时返回 0
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
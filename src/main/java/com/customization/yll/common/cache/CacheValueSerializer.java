@@ -0,0 +1,171 @@
+package com.customization.yll.common.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author 姚礼林
+ * @desc redis 缓存值序列化，将缓存值编码为带格式头的字节后存入 redis。<br>
+ * 格式头为：2 字节魔数 + 1 字节编码器标识 + 1 字节标志位（是否压缩），读取时根据格式头解码。
+ * 不带格式头的值（旧版本直接存入的对象）原样返回，因此旧的缓存仍然可以读取。
+ * 字符串固定使用 {@link StringCacheCodec}，其他对象使用设置的编码器，超过压缩阈值的数据使用 Deflate 压缩
+ * @date 2026/10/17
+ **/
+public class CacheValueSerializer {
+    /**
+     * 默认压缩阈值，单位字节
+     */
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+    private static final byte MAGIC_1 = (byte) 0xCA;
+    private static final byte MAGIC_2 = (byte) 0xC7;
+    private static final int HEADER_LENGTH = 4;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final StringCacheCodec STRING_CODEC = new StringCacheCodec();
+
+    private final Map<Byte, CacheCodec> codecs = new ConcurrentHashMap<>();
+    private volatile CacheCodec codec;
+    private volatile int compressThreshold = DEFAULT_COMPRESS_THRESHOLD;
+
+    public CacheValueSerializer() {
+        JdkCacheCodec jdkCodec = new JdkCacheCodec();
+        codecs.put(jdkCodec.id(), jdkCodec);
+        codecs.put(STRING_CODEC.id(), STRING_CODEC);
+        this.codec = jdkCodec;
+    }
+
+    /**
+     * 设置非字符串值使用的编码器，编码器同时会注册用于解码
+     *
+     * @param codec 编码器
+     */
+    public void setCodec(CacheCodec codec) {
+        CacheCodec registered = codecs.get(codec.id());
+        if (registered != null && registered.getClass() != codec.getClass()) {
+            throw new IllegalArgumentException("编码格式标识 " + codec.id() + " 已被 "
+                    + registered.getClass().getName() + " 使用");
+        }
+        codecs.put(codec.id(), codec);
+        this.codec = codec;
+    }
+
+    /**
+     * 注册只用于解码的编码器，用于切换编码器后仍能读取旧格式的缓存
+     *
+     * @param codec 编码器
+     */
+    public void registerCodec(CacheCodec codec) {
+        codecs.putIfAbsent(codec.id(), codec);
+    }
+
+    /**
+     * 设置压缩阈值，编码后超过此大小的数据会进行压缩
+     *
+     * @param compressThreshold 压缩阈值，单位字节，小于 0 表示不压缩
+     */
+    public void setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 编码缓存值
+     *
+     * @param value 缓存值
+     * @return 带格式头的字节
+     * @throws IOException 编码失败，例如缓存对象没有实现 Serializable 接口
+     */
+    public byte[] encode(Object value) throws IOException {
+        CacheCodec valueCodec = value instanceof String ? STRING_CODEC : codec;
+        byte[] payload = valueCodec.encode(value);
+        byte flags = 0;
+        int threshold = compressThreshold;
+        if (threshold >= 0 && payload.length > threshold) {
+            byte[] compressed = compress(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+        byte[] data = new byte[HEADER_LENGTH + payload.length];
+        data[0] = MAGIC_1;
+        data[1] = MAGIC_2;
+        data[2] = valueCodec.id();
+        data[3] = flags;
+        System.arraycopy(payload, 0, data, HEADER_LENGTH, payload.length);
+        return data;
+    }
+
+    /**
+     * 解码缓存值，不带格式头的值原样返回
+     *
+     * @param stored redis 中读取的值
+     * @return 缓存值
+     * @throws IOException 解码失败
+     */
+    public Object decode(Object stored) throws IOException {
+        if (!isEncoded(stored)) {
+            return stored;
+        }
+        byte[] data = (byte[]) stored;
+        CacheCodec valueCodec = codecs.get(data[2]);
+        if (valueCodec == null) {
+            throw new IOException("找不到编码格式标识为 " + data[2] + " 的缓存解码器");
+        }
+        byte[] payload = Arrays.copyOfRange(data, HEADER_LENGTH, data.length);
+        if ((data[3] & FLAG_COMPRESSED) != 0) {
+            payload = decompress(payload);
+        }
+        return valueCodec.decode(payload);
+    }
+
+    private static boolean isEncoded(Object stored) {
+        if (!(stored instanceof byte[])) {
+            return false;
+        }
+        byte[] data = (byte[]) stored;
+        return data.length >= HEADER_LENGTH && data[0] == MAGIC_1 && data[1] == MAGIC_2;
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("缓存值解压失败，数据不完整");
+                }
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("缓存值解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
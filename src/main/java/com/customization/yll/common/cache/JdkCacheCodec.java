@@ -0,0 +1,35 @@
+package com.customization.yll.common.cache;
+
+import java.io.*;
+
+/**
+ * @author 姚礼林
+ * @desc 使用 java 序列化的缓存值编码器，缓存对象类必须实现 Serializable 接口
+ * @date 2026/10/17
+ **/
+public class JdkCacheCodec implements CacheCodec {
+    public static final byte ID = 1;
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(value);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("缓存值解码失败，找不到类：" + e.getMessage(), e);
+        }
+    }
+}
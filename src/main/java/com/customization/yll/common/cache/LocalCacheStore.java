@@ -0,0 +1,140 @@
+package com.customization.yll.common.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * @author 姚礼林
+ * @desc 本地缓存存储，没有 redis 时使用。条目读取时按过期时间惰性删除，
+ * 并可通过 {@link #sweep()} 批量清理已过期但未被读取的条目，避免内存只增不减
+ * @date 2026/10/17
+ **/
+public class LocalCacheStore {
+    private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    @Nullable
+    private final Consumer<String> evictionListener;
+
+    public LocalCacheStore() {
+        this(null);
+    }
+
+    /**
+     * @param evictionListener 条目过期被移除时调用，参数为缓存key
+     */
+    public LocalCacheStore(@Nullable Consumer<String> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回 null
+     *
+     * @param key 缓存key
+     * @return 缓存值
+     */
+    @Nullable
+    public Object get(String key) {
+        CacheEntry entry = getEntry(key);
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * 获取缓存条目，不存在或已过期返回 null
+     *
+     * @param key 缓存key
+     * @return 缓存条目
+     */
+    @Nullable
+    public CacheEntry getEntry(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                notifyEviction(key);
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 存入缓存
+     *
+     * @param key     缓存key
+     * @param value   缓存值
+     * @param seconds 缓存时间，单位秒，为 null 表示不过期
+     */
+    public void put(String key, Object value, @Nullable Integer seconds) {
+        long expireTime = seconds == null ? CacheEntry.NEVER_EXPIRE
+                : System.currentTimeMillis() + seconds * 1000L;
+        entries.put(key, new CacheEntry(value, expireTime, CacheSizeEstimator.estimate(value)));
+    }
+
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 删除指定前缀的缓存
+     *
+     * @param prefix 缓存key前缀
+     */
+    public void removeByPrefix(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public boolean containsKey(String key) {
+        return getEntry(key) != null;
+    }
+
+    /**
+     * 获取缓存剩余存活时间，单位秒
+     *
+     * @param key 缓存key
+     * @return 剩余存活时间，如果缓存不存在或没有过期时间则返回 -1
+     */
+    public int getRemainingSeconds(String key) {
+        CacheEntry entry = getEntry(key);
+        if (entry == null || entry.getExpireTime() == CacheEntry.NEVER_EXPIRE) {
+            return -1;
+        }
+        return (int) ((entry.getRemainingMillis(System.currentTimeMillis()) + 999) / 1000);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 批量清理已过期的条目
+     *
+     * @return 清理结果
+     */
+    public SweepResult sweep() {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        long bytes = 0;
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> item = iterator.next();
+            CacheEntry entry = item.getValue();
+            if (entry.isExpired(now) && entries.remove(item.getKey(), entry)) {
+                count++;
+                bytes += entry.getWeight();
+                notifyEviction(item.getKey());
+            }
+        }
+        return new SweepResult(count, bytes);
+    }
+
+    private void notifyEviction(String key) {
+        if (evictionListener != null) {
+            evictionListener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.customization.yll.common.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @author 姚礼林
+ * @desc 进程内的近端缓存（一级缓存），放在 redis 前面，减少热点 key 的网络往返。<br>
+ * 按 LRU 淘汰，同时限制条目数量和估算的内存占用，每个 key 的过期时间不会超过 redis 中的过期时间。
+ * 缓存的是值的引用，取出后请不要修改缓存值
+ * @date 2026/10/17
+ **/
+public class NearCache {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long maxTtlMillis;
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    @Nullable
+    private final Consumer<String> evictionListener;
+    private long totalWeight;
+
+    /**
+     * @param maxEntries    最大条目数量
+     * @param maxWeight     最大内存占用（估算），单位字节
+     * @param maxTtlSeconds 条目在本地缓存的最长存活时间，单位秒
+     */
+    public NearCache(int maxEntries, long maxWeight, int maxTtlSeconds) {
+        this(maxEntries, maxWeight, maxTtlSeconds, null);
+    }
+
+    /**
+     * @param maxEntries       最大条目数量
+     * @param maxWeight        最大内存占用（估算），单位字节
+     * @param maxTtlSeconds    条目在本地缓存的最长存活时间，单位秒
+     * @param evictionListener 条目因容量不足或过期被移除时调用，参数为缓存key，在锁内调用，不能执行耗时操作
+     */
+    public NearCache(int maxEntries, long maxWeight, int maxTtlSeconds, @Nullable Consumer<String> evictionListener) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("[maxEntries] 必需大于 0");
+        }
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("[maxWeight] 必需大于 0");
+        }
+        if (maxTtlSeconds < 1) {
+            throw new IllegalArgumentException("[maxTtlSeconds] 必需大于 0");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.maxTtlMillis = maxTtlSeconds * 1000L;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回 null
+     *
+     * @param key 缓存key
+     * @return 缓存值
+     */
+    @Nullable
+    public synchronized Object get(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            totalWeight -= entry.getWeight();
+            notifyEviction(key);
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * 存入缓存
+     *
+     * @param key          缓存key
+     * @param value        缓存值
+     * @param l2TtlSeconds 二级缓存（redis）中的过期时间，单位秒，本地过期时间不会超过此时间，为 null 表示二级缓存不过期
+     */
+    public void put(String key, Object value, @Nullable Integer l2TtlSeconds) {
+        long ttl = maxTtlMillis;
+        if (l2TtlSeconds != null) {
+            ttl = Math.min(ttl, l2TtlSeconds * 1000L);
+        }
+        long weight = CacheSizeEstimator.estimate(value);
+        if (value == null || ttl <= 0 || weight > maxWeight) {
+            invalidate(key);
+            return;
+        }
+        CacheEntry entry = new CacheEntry(value, System.currentTimeMillis() + ttl, weight);
+        synchronized (this) {
+            CacheEntry old = entries.put(key, entry);
+            if (old != null) {
+                totalWeight -= old.getWeight();
+            }
+            totalWeight += weight;
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存key
+     */
+    public synchronized void invalidate(String key) {
+        CacheEntry old = entries.remove(key);
+        if (old != null) {
+            totalWeight -= old.getWeight();
+        }
+    }
+
+    /**
+     * 删除指定前缀的缓存
+     *
+     * @param prefix 缓存key前缀
+     */
+    public synchronized void invalidateByPrefix(String prefix) {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> item = iterator.next();
+            if (item.getKey().startsWith(prefix)) {
+                iterator.remove();
+                totalWeight -= item.getValue().getWeight();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取当前估算的内存占用，单位字节
+     */
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || totalWeight > maxWeight)) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            totalWeight -= eldest.getValue().getWeight();
+            notifyEviction(eldest.getKey());
+        }
+    }
+
+    private void notifyEviction(String key) {
+        if (evictionListener != null) {
+            evictionListener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.customization.yll.common.cache;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 本地缓存过期清理结果
+ * @date 2026/10/17
+ **/
+@Data
+public class SweepResult {
+    /**
+     * 清理的条目数量
+     */
+    private final int entries;
+    /**
+     * 回收的内存（估算），单位字节
+     */
+    private final long bytes;
+}
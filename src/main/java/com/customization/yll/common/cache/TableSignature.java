@@ -0,0 +1,56 @@
+package com.customization.yll.common.cache;
+
+import com.customization.yll.common.exception.SqlExecuteException;
+import lombok.Data;
+import weaver.conn.RecordSet;
+
+/**
+ * @author 姚礼林
+ * @desc 数据表签名，由行数、最小id和最大id组成，用于快照廉价地判断表数据是否有新增或删除。
+ * 只能发现新增和删除，修改已有行需要调用方主动失效或定时重新加载
+ * @date 2026/10/17
+ **/
+@Data
+public class TableSignature {
+    private final long count;
+    private final long minId;
+    private final long maxId;
+
+    /**
+     * 查询数据表签名
+     *
+     * @param tableName 表名，表必需有 id 字段
+     * @param recordSet recordSet
+     * @return 表签名
+     */
+    public static TableSignature of(String tableName, RecordSet recordSet) {
+        String sql = "select count(1) cnt, min(id) min_id, max(id) max_id from " + tableName;
+        if (!recordSet.executeQuery(sql) || !recordSet.next()) {
+            throw new SqlExecuteException("查询数据表签名失败，sql: " + sql, sql);
+        }
+        return new TableSignature(recordSet.getInt("cnt"), recordSet.getInt("min_id"), recordSet.getInt("max_id"));
+    }
+
+    /**
+     * 相对于旧签名，是否只有新增行（id 大于旧签名的最大id）
+     *
+     * @param old 旧签名
+     * @param appendedRows id 大于旧签名最大id的行数
+     * @return 是否只有新增
+     */
+    public boolean isAppendOnly(TableSignature old, long appendedRows) {
+        return maxId >= old.maxId && count - old.count == appendedRows;
+    }
+
+    /**
+     * 相对于旧签名，是否只有在两端新增的行（id 小于旧签名的最小id或大于旧签名的最大id），
+     * 用于新增行 id 递减的表，例如 workflow_bill 中自定义表单的 id 为递减的负数
+     *
+     * @param old 旧签名
+     * @param extendedRows id 小于旧签名最小id或大于旧签名最大id的行数
+     * @return 是否只有新增
+     */
+    public boolean isExtendedOnly(TableSignature old, long extendedRows) {
+        return minId <= old.minId && maxId >= old.maxId && count - old.count == extendedRows;
+    }
+}
@@ -0,0 +1,202 @@
+package com.customization.yll.common.collection;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc int 为 key 的哈希表，使用开放寻址（线性探测）保存在数组中，key 不需要装箱，查找时不会创建对象。
+ * 适合一次构建、大量读取的场景，不支持删除。非线程安全，构建完成后只读时可以安全发布给多个线程
+ * @date 2026/10/17
+ **/
+public final class IntObjectMap<V> {
+    /**
+     * key 为 0 的条目单独保存，数组中的 0 表示空位
+     */
+    private static final int FREE_KEY = 0;
+    private static final int MIN_CAPACITY = 16;
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private boolean hasFreeKey;
+    @Nullable
+    private V freeValue;
+
+    public IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预计的条目数量，负载因子为 0.5
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(MIN_CAPACITY, expectedSize * 2));
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private IntObjectMap(IntObjectMap<V> source) {
+        keys = Arrays.copyOf(source.keys, source.keys.length);
+        values = Arrays.copyOf(source.values, source.values.length);
+        mask = source.mask;
+        size = source.size;
+        hasFreeKey = source.hasFreeKey;
+        freeValue = source.freeValue;
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key key
+     * @return 值，不存在返回 null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeValue : null;
+        }
+        int index = hash(key) & mask;
+        while (true) {
+            int current = keys[index];
+            if (current == key) {
+                return (V) values[index];
+            }
+            if (current == FREE_KEY) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        int index = hash(key) & mask;
+        while (true) {
+            int current = keys[index];
+            if (current == key) {
+                return true;
+            }
+            if (current == FREE_KEY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 存入值
+     *
+     * @param key   key
+     * @param value 值
+     * @return 旧值，不存在返回 null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (key == FREE_KEY) {
+            V old = freeValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeValue = value;
+            return old;
+        }
+        int index = hash(key) & mask;
+        while (true) {
+            int current = keys[index];
+            if (current == key) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            if (current == FREE_KEY) {
+                keys[index] = key;
+                values[index] = value;
+                size++;
+                if (size * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 遍历所有条目，顺序不固定
+     *
+     * @param consumer 条目处理
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(IntObjectConsumer<? super V> consumer) {
+        if (hasFreeKey) {
+            consumer.accept(FREE_KEY, freeValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 复制一份，用于在不影响原表的情况下修改
+     *
+     * @return 新的哈希表
+     */
+    public IntObjectMap<V> copy() {
+        return new IntObjectMap<>(this);
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new Object[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int index = hash(key) & mask;
+                while (keys[index] != FREE_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n < 0 ? 1 << 30 : Math.max(n, MIN_CAPACITY);
+    }
+
+    /**
+     * 条目处理，key 为 int，不需要装箱
+     */
+    @FunctionalInterface
+    public interface IntObjectConsumer<V> {
+        void accept(int key, V value);
+    }
+}
@@ -0,0 +1,188 @@
+package com.customization.yll.common.collection;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 压缩的 int 集合（Roaring Bitmap 思路），按高 16 位分块，每块内元素少于 {@link #ARRAY_MAX} 个时保存为
+ * 有序 char 数组，否则保存为 65536 位的位图。稀疏的 id 集合只占用少量内存，密集的集合按位保存，
+ * 判断是否包含只需一次二分查找加一次数组或位运算。创建后不可修改，可以安全地在多个线程间共享
+ * @date 2026/10/17
+ **/
+public final class RoaringIntSet {
+    /**
+     * 块内元素超过此数量时使用位图，4096 个 char 与 1024 个 long 占用的内存相同
+     */
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final RoaringIntSet EMPTY = new RoaringIntSet(new char[0], new Object[0], 0);
+    /**
+     * 每块的高 16 位，升序
+     */
+    private final char[] keys;
+    /**
+     * 每块的低 16 位，char[]（有序数组）或 long[]（位图）
+     */
+    private final Object[] containers;
+    private final int cardinality;
+
+    private RoaringIntSet(char[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    public static RoaringIntSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 创建集合
+     *
+     * @param values 元素，可以无序、重复，不会修改传入的数组
+     * @return 集合
+     */
+    public static RoaringIntSet of(int[] values) {
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        // 按无符号顺序排序，保证高 16 位升序
+        int[] sorted = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            sorted[i] = values[i] ^ Integer.MIN_VALUE;
+        }
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] ^= Integer.MIN_VALUE;
+        }
+        char[] keys = new char[sorted.length];
+        Object[] containers = new Object[sorted.length];
+        int blockCount = 0;
+        int cardinality = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            char key = (char) (sorted[start] >>> 16);
+            int end = start;
+            int distinct = 0;
+            int previous = 0;
+            while (end < sorted.length && (char) (sorted[end] >>> 16) == key) {
+                if (end == start || sorted[end] != previous) {
+                    distinct++;
+                }
+                previous = sorted[end];
+                end++;
+            }
+            keys[blockCount] = key;
+            containers[blockCount] = distinct > ARRAY_MAX ? toBitmap(sorted, start, end) : toArray(sorted, start, end,
+                    distinct);
+            blockCount++;
+            cardinality += distinct;
+            start = end;
+        }
+        return new RoaringIntSet(Arrays.copyOf(keys, blockCount), Arrays.copyOf(containers, blockCount),
+                cardinality);
+    }
+
+    public boolean contains(int value) {
+        int block = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (block < 0) {
+            return false;
+        }
+        Object container = containers[block];
+        char low = (char) value;
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * 过滤出集合中包含的元素
+     *
+     * @param values 待过滤的元素
+     * @return 集合中包含的元素，保持传入的顺序
+     */
+    public int[] filter(int[] values) {
+        int[] result = new int[values.length];
+        int size = 0;
+        for (int value : values) {
+            if (contains(value)) {
+                result[size++] = value;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 合并另一个集合，返回新集合
+     *
+     * @param values 要加入的元素
+     * @return 新集合
+     */
+    public RoaringIntSet with(int[] values) {
+        if (values.length == 0) {
+            return this;
+        }
+        int[] current = toArray();
+        int[] merged = Arrays.copyOf(current, current.length + values.length);
+        System.arraycopy(values, 0, merged, current.length, values.length);
+        return of(merged);
+    }
+
+    /**
+     * 获取所有元素
+     *
+     * @return 元素，按无符号顺序升序
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality];
+        int size = 0;
+        for (int block = 0; block < keys.length; block++) {
+            int high = keys[block] << 16;
+            Object container = containers[block];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    result[size++] = high | low;
+                }
+            } else {
+                long[] bitmap = (long[]) container;
+                for (int word = 0; word < bitmap.length; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        result[size++] = high | (word << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    private static char[] toArray(int[] sorted, int start, int end, int distinct) {
+        char[] lows = new char[distinct];
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            if (i == start || sorted[i] != sorted[i - 1]) {
+                lows[size++] = (char) sorted[i];
+            }
+        }
+        return lows;
+    }
+
+    private static long[] toBitmap(int[] sorted, int start, int end) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = start; i < end; i++) {
+            char low = (char) sorted[i];
+            bitmap[low >>> 6] |= 1L << low;
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,96 @@
+package com.customization.yll.common.db;
+
+import cn.hutool.core.convert.Convert;
+import com.customization.yll.common.exception.SqlExecuteException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 查询结果当前行的视图，同一个游标的所有行共用一个对象，游标移动后读取到的是下一行的值。
+ * 取值方式与 RecordSet 一致：字符串值为 null 时返回空字符串，整数无法转换时返回 -1
+ * @date 2026/10/17
+ **/
+public final class Row {
+    private final ResultSet resultSet;
+    private final String[] columnNames;
+    private int rowNumber;
+
+    Row(ResultSet resultSet) throws SQLException {
+        this.resultSet = resultSet;
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        this.columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+        }
+    }
+
+    /**
+     * 获取当前行号，从 1 开始
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getString(String column) {
+        try {
+            String value = resultSet.getString(column);
+            return value == null ? "" : value;
+        } catch (SQLException e) {
+            throw new SqlExecuteException("读取字段值失败，字段：" + column, e);
+        }
+    }
+
+    /**
+     * 按字段序号获取字段值
+     *
+     * @param index 字段序号，从 1 开始
+     * @return 字段值，为 null 时返回空字符串
+     */
+    public String getString(int index) {
+        try {
+            String value = resultSet.getString(index);
+            return value == null ? "" : value;
+        } catch (SQLException e) {
+            throw new SqlExecuteException("读取字段值失败，字段序号：" + index, e);
+        }
+    }
+
+    public int getInt(String column) {
+        return Convert.toInt(getString(column), -1);
+    }
+
+    public Object getObject(String column) {
+        try {
+            return resultSet.getObject(column);
+        } catch (SQLException e) {
+            throw new SqlExecuteException("读取字段值失败，字段：" + column, e);
+        }
+    }
+
+    /**
+     * 获取所有字段名，小写
+     */
+    public String[] getColumnNames() {
+        return columnNames.clone();
+    }
+
+    /**
+     * 复制当前行为字段名（小写）与字段值的映射
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> values = new LinkedHashMap<>(columnNames.length * 2);
+        for (int i = 0; i < columnNames.length; i++) {
+            values.put(columnNames[i], getString(i + 1));
+        }
+        return values;
+    }
+
+    void advance() {
+        rowNumber++;
+    }
+}
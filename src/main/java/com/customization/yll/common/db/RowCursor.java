@@ -0,0 +1,166 @@
+package com.customization.yll.common.db;
+
+import com.customization.yll.common.exception.SqlExecuteException;
+import weaver.conn.ConnectionPool;
+import weaver.conn.WeaverConnection;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @author 姚礼林
+ * @desc 查询结果游标，逐行从数据库读取并转换，内存中只保留驱动按 fetchSize 预取的行，适合处理大量数据。
+ * 打开后独占一个连接池连接，直到读取完最后一行或调用 {@link #close()}，必需使用 try-with-resources 关闭。
+ * 不参与 RecordSetTrans 的事务
+ * @date 2026/10/17
+ **/
+public final class RowCursor<T> implements Iterator<T>, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RowCursor.class);
+    private final String sql;
+    private final RowMapper<T> rowMapper;
+    private final WeaverConnection connection;
+    private final boolean restoreAutoCommit;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final Row row;
+    /**
+     * 为 null 表示还没有移动到下一行
+     */
+    private Boolean hasNext;
+    private boolean closed;
+
+    private RowCursor(String sql, RowMapper<T> rowMapper, WeaverConnection connection, boolean restoreAutoCommit,
+                      PreparedStatement statement, ResultSet resultSet) throws SQLException {
+        this.sql = sql;
+        this.rowMapper = rowMapper;
+        this.connection = connection;
+        this.restoreAutoCommit = restoreAutoCommit;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.row = new Row(resultSet);
+    }
+
+    /**
+     * 执行查询并打开游标
+     *
+     * @param sql       查询sql，参数使用?占位符
+     * @param params    参数
+     * @param fetchSize 每次从数据库预取的行数，mysql 驱动只支持逐行读取，忽略此参数
+     * @param rowMapper 行映射
+     * @return 游标
+     * @throws SqlExecuteException 执行查询失败
+     */
+    public static <T> RowCursor<T> open(String sql, List<?> params, int fetchSize, RowMapper<T> rowMapper) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("[fetchSize] 必需大于 0");
+        }
+        WeaverConnection connection = ConnectionPool.getInstance().getConnection();
+        if (connection == null) {
+            throw new SqlExecuteException("获取数据库连接失败，sql: " + sql, sql);
+        }
+        boolean restoreAutoCommit = false;
+        PreparedStatement statement = null;
+        try {
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+            // postgresql 只有在事务中才按 fetchSize 分批读取，否则一次读取全部结果
+            if (product.contains("postgres") && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // mysql 驱动默认一次读取全部结果，Integer.MIN_VALUE 表示逐行读取
+            statement.setFetchSize(product.contains("mysql") || product.contains("mariadb") ? Integer.MIN_VALUE
+                    : fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return new RowCursor<>(sql, rowMapper, connection, restoreAutoCommit, statement,
+                    statement.executeQuery());
+        } catch (SQLException | RuntimeException e) {
+            release(statement, connection, restoreAutoCommit);
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: " + params, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (hasNext == null) {
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException e) {
+                close();
+                throw new SqlExecuteException("读取查询结果失败，sql: " + sql, e);
+            }
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasNext = null;
+        row.advance();
+        return rowMapper.map(row);
+    }
+
+    /**
+     * 转换为顺序流，流关闭时关闭游标
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * 关闭结果集并归还连接，可以重复调用
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            log.warn("关闭结果集失败", e);
+        }
+        release(statement, connection, restoreAutoCommit);
+    }
+
+    private static void release(PreparedStatement statement, WeaverConnection connection,
+                                boolean restoreAutoCommit) {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            if (restoreAutoCommit) {
+                // 只读查询，回滚结束事务后恢复自动提交
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.warn("释放查询语句失败", e);
+        } finally {
+            ConnectionPool.getInstance().returnConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.customization.yll.common.db;
+
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 行映射，将查询结果的当前行转换为对象
+ * @date 2026/10/17
+ **/
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * 转换当前行
+     *
+     * @param row 当前行，游标移动后会指向下一行，不能在方法外保存
+     * @return 转换后的对象
+     */
+    T map(Row row);
+
+    /**
+     * 转换为字段名（小写）与字段值的映射
+     */
+    static RowMapper<Map<String, String>> toMap() {
+        return Row::toMap;
+    }
+}
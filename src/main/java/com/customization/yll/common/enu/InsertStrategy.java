@@ -0,0 +1,18 @@
+package com.customization.yll.common.enu;
+
+/**
+ * @author 姚礼林
+ * @desc 批量插入方式
+ * @date 2026/10/17
+ */
+public enum InsertStrategy {
+    /**
+     * 每行一条 insert 语句，通过 JDBC 批量执行，所有数据库都支持
+     */
+    PER_ROW,
+    /**
+     * 多行合并为一条 insert into ... values (...),(...) 语句，mysql、postgresql 下明显快于逐行批量执行，
+     * 其他数据库不支持时自动使用 {@link #PER_ROW}
+     */
+    MULTI_ROW
+}
@@ -0,0 +1,19 @@
+package com.customization.yll.common.hrm.directory;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 部门信息，对应 hrmdepartment 表
+ * @date 2026/10/17
+ **/
+@Data
+public class HrmDepartment {
+    private final int id;
+    private final String name;
+    /**
+     * 上级部门id，没有上级部门为 0
+     */
+    private final int parentId;
+    private final int subCompanyId;
+}
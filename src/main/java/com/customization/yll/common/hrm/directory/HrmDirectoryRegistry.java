@@ -0,0 +1,172 @@
+package com.customization.yll.common.hrm.directory;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.StrUtil;
+import com.customization.yll.common.cache.AbstractSnapshotRegistry;
+import com.customization.yll.common.collection.IntObjectMap;
+import com.customization.yll.common.exception.SqlExecuteException;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 人力资源目录注册表，一次性加载所有人员、部门、分部（hrmresource、hrmdepartment、hrmsubcompany），
+ * {@link com.customization.yll.common.util.HrmInfoUtil} 开启后优先从这里读取，找不到时再查询数据库。<br>
+ * 后台按间隔比较各表的行数、最大id和最大修改时间（modified 字段），人员表只加载修改时间不早于上次最大修改时间
+ * 或 id 更大的行，部门和分部数据量小，变化时整表重新加载并重新构建组织树。人员有删除或无法按修改时间增量加载时
+ * 整表重新加载。新快照构建完成后整体替换，读取方不会看到构建到一半的组织树
+ * @date 2026/10/17
+ **/
+public class HrmDirectoryRegistry extends AbstractSnapshotRegistry<HrmDirectorySnapshot> {
+    private static final HrmDirectoryRegistry INSTANCE = new HrmDirectoryRegistry();
+    private static final String USER_TABLE = "hrmresource";
+    private static final String DEPARTMENT_TABLE = "hrmdepartment";
+    private static final String SUB_COMPANY_TABLE = "hrmsubcompany";
+    private static final String USER_SQL = "select id,lastname,workcode,loginid,mobile,departmentid,subcompanyid1 " +
+            "from hrmresource";
+    private static final String DEPARTMENT_SQL = "select id,departmentname,supdepid,subcompanyid1 from hrmdepartment";
+    private static final String SUB_COMPANY_SQL = "select id,subcompanyname,supsubcomid from hrmsubcompany";
+
+    private HrmDirectoryRegistry() {
+        super("HrmDirectory");
+    }
+
+    public static HrmDirectoryRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected HrmDirectorySnapshot loadAll() {
+        RecordSet recordSet = new RecordSet();
+        HrmTableState userState = HrmTableState.of(USER_TABLE, recordSet);
+        HrmTableState departmentState = HrmTableState.of(DEPARTMENT_TABLE, recordSet);
+        HrmTableState subCompanyState = HrmTableState.of(SUB_COMPANY_TABLE, recordSet);
+        IntObjectMap<HrmDepartment> departments = loadDepartments(departmentState, recordSet);
+        IntObjectMap<HrmSubCompany> subCompanies = loadSubCompanies(subCompanyState, recordSet);
+        return new HrmDirectorySnapshot(loadUsers(userState, recordSet), departments, subCompanies,
+                OrgTree.ofDepartments(departments), OrgTree.ofSubCompanies(subCompanies), userState,
+                departmentState, subCompanyState);
+    }
+
+    @Nullable
+    @Override
+    protected HrmDirectorySnapshot checkForChanges(HrmDirectorySnapshot current) {
+        RecordSet recordSet = new RecordSet();
+        HrmTableState userState = HrmTableState.of(USER_TABLE, recordSet);
+        HrmTableState departmentState = HrmTableState.of(DEPARTMENT_TABLE, recordSet);
+        HrmTableState subCompanyState = HrmTableState.of(SUB_COMPANY_TABLE, recordSet);
+        boolean userChanged = !userState.equals(current.getUserState());
+        boolean departmentChanged = !departmentState.equals(current.getDepartmentState());
+        boolean subCompanyChanged = !subCompanyState.equals(current.getSubCompanyState());
+        if (!userChanged && !departmentChanged && !subCompanyChanged) {
+            return null;
+        }
+        IntObjectMap<HrmUser> users = userChanged ? loadChangedUsers(current, userState, recordSet)
+                : current.getUsers();
+        IntObjectMap<HrmDepartment> departments = current.getDepartments();
+        OrgTree departmentTree = current.getDepartmentTree();
+        if (departmentChanged) {
+            departments = loadDepartments(departmentState, recordSet);
+            departmentTree = OrgTree.ofDepartments(departments);
+        }
+        IntObjectMap<HrmSubCompany> subCompanies = current.getSubCompanies();
+        OrgTree subCompanyTree = current.getSubCompanyTree();
+        if (subCompanyChanged) {
+            subCompanies = loadSubCompanies(subCompanyState, recordSet);
+            subCompanyTree = OrgTree.ofSubCompanies(subCompanies);
+        }
+        return new HrmDirectorySnapshot(users, departments, subCompanies, departmentTree, subCompanyTree,
+                userState, departmentState, subCompanyState);
+    }
+
+    private IntObjectMap<HrmUser> loadChangedUsers(HrmDirectorySnapshot current, HrmTableState userState,
+                                                   RecordSet recordSet) {
+        HrmTableState old = current.getUserState();
+        Timestamp since = parseTimestamp(old.getMaxModified());
+        if (since == null || userState.getCount() < old.getCount()) {
+            return loadUsers(userState, recordSet);
+        }
+        IntObjectMap<HrmUser> users = current.getUsers().copy();
+        int changed;
+        try {
+            changed = readUsers(USER_SQL + " where modified>=? or id>?", recordSet, users, since, old.getMaxId());
+        } catch (SqlExecuteException e) {
+            log.warn("人员按修改时间增量加载失败，重新加载全部", e);
+            return loadUsers(userState, recordSet);
+        }
+        if (users.size() != userState.getCount()) {
+            // 行数对不上，说明有无法通过修改时间发现的变化
+            log.info("人员增量加载后数量不一致，重新加载全部");
+            return loadUsers(userState, recordSet);
+        }
+        log.info("人员增量加载，变化人员数量：" + changed);
+        return users;
+    }
+
+    private static IntObjectMap<HrmUser> loadUsers(HrmTableState state, RecordSet recordSet) {
+        IntObjectMap<HrmUser> users = new IntObjectMap<>((int) state.getCount());
+        readUsers(USER_SQL, recordSet, users);
+        return users;
+    }
+
+    private static int readUsers(String sql, RecordSet recordSet, IntObjectMap<HrmUser> users, Object... params) {
+        execute(sql, recordSet, params);
+        int count = 0;
+        while (recordSet.next()) {
+            HrmUser user = new HrmUser(recordSet.getInt("id"), recordSet.getString("lastname"),
+                    recordSet.getString("workcode"), recordSet.getString("loginid"), recordSet.getString("mobile"),
+                    toId(recordSet.getString("departmentid")), toId(recordSet.getString("subcompanyid1")));
+            users.put(user.getId(), user);
+            count++;
+        }
+        return count;
+    }
+
+    private static IntObjectMap<HrmDepartment> loadDepartments(HrmTableState state, RecordSet recordSet) {
+        IntObjectMap<HrmDepartment> departments = new IntObjectMap<>((int) state.getCount());
+        execute(DEPARTMENT_SQL, recordSet);
+        while (recordSet.next()) {
+            HrmDepartment department = new HrmDepartment(recordSet.getInt("id"),
+                    recordSet.getString("departmentname"), toId(recordSet.getString("supdepid")),
+                    toId(recordSet.getString("subcompanyid1")));
+            departments.put(department.getId(), department);
+        }
+        return departments;
+    }
+
+    private static IntObjectMap<HrmSubCompany> loadSubCompanies(HrmTableState state, RecordSet recordSet) {
+        IntObjectMap<HrmSubCompany> subCompanies = new IntObjectMap<>((int) state.getCount());
+        execute(SUB_COMPANY_SQL, recordSet);
+        while (recordSet.next()) {
+            HrmSubCompany subCompany = new HrmSubCompany(recordSet.getInt("id"),
+                    recordSet.getString("subcompanyname"), toId(recordSet.getString("supsubcomid")));
+            subCompanies.put(subCompany.getId(), subCompany);
+        }
+        return subCompanies;
+    }
+
+    private static int toId(String value) {
+        return Convert.toInt(value, 0);
+    }
+
+    @Nullable
+    private static Timestamp parseTimestamp(String value) {
+        if (StrUtil.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Timestamp.valueOf(value.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void execute(String sql, RecordSet recordSet, Object... params) {
+        if (!recordSet.executeQuery(sql, params)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: " + Arrays.toString(params), sql);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.customization.yll.common.hrm.directory;
+
+import com.customization.yll.common.collection.IntObjectMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 人力资源目录快照，包含人员、部门、分部，按 id 使用 {@link IntObjectMap} 建立索引，另有工号到人员的索引，
+ * 以及部门树和分部树（{@link OrgTree}）。创建后不可修改
+ * @date 2026/10/17
+ **/
+public final class HrmDirectorySnapshot {
+    private final IntObjectMap<HrmUser> users;
+    private final Map<String, HrmUser> usersByWorkCode;
+    private final IntObjectMap<HrmDepartment> departments;
+    private final IntObjectMap<HrmSubCompany> subCompanies;
+    private final OrgTree departmentTree;
+    private final OrgTree subCompanyTree;
+    private final HrmTableState userState;
+    private final HrmTableState departmentState;
+    private final HrmTableState subCompanyState;
+
+    HrmDirectorySnapshot(IntObjectMap<HrmUser> users, IntObjectMap<HrmDepartment> departments,
+                         IntObjectMap<HrmSubCompany> subCompanies, OrgTree departmentTree,
+                         OrgTree subCompanyTree, HrmTableState userState, HrmTableState departmentState,
+                         HrmTableState subCompanyState) {
+        this.users = users;
+        this.departments = departments;
+        this.subCompanies = subCompanies;
+        this.departmentTree = departmentTree;
+        this.subCompanyTree = subCompanyTree;
+        this.userState = userState;
+        this.departmentState = departmentState;
+        this.subCompanyState = subCompanyState;
+        Map<String, HrmUser> byWorkCode = new HashMap<>(Math.max(16, users.size() * 2));
+        users.forEach((id, user) -> {
+            if (!user.getWorkCode().isEmpty()) {
+                // 工号重复时取 id 最小的人员
+                byWorkCode.merge(user.getWorkCode(), user, (a, b) -> a.getId() <= b.getId() ? a : b);
+            }
+        });
+        this.usersByWorkCode = byWorkCode;
+    }
+
+    @Nullable
+    public HrmUser getUser(int userId) {
+        return users.get(userId);
+    }
+
+    /**
+     * 根据工号获取人员，工号重复时返回 id 最小的人员
+     *
+     * @param workCode 工号
+     * @return 人员信息，不存在返回 null
+     */
+    @Nullable
+    public HrmUser getUserByWorkCode(String workCode) {
+        return usersByWorkCode.get(workCode);
+    }
+
+    @Nullable
+    public HrmDepartment getDepartment(int departmentId) {
+        return departments.get(departmentId);
+    }
+
+    @Nullable
+    public HrmSubCompany getSubCompany(int subCompanyId) {
+        return subCompanies.get(subCompanyId);
+    }
+
+    /**
+     * 获取部门树，用于获取部门全路径、判断上下级部门
+     */
+    public OrgTree getDepartmentTree() {
+        return departmentTree;
+    }
+
+    /**
+     * 获取分部树，用于获取分部全路径、判断上下级分部
+     */
+    public OrgTree getSubCompanyTree() {
+        return subCompanyTree;
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    public int getDepartmentCount() {
+        return departments.size();
+    }
+
+    public int getSubCompanyCount() {
+        return subCompanies.size();
+    }
+
+    IntObjectMap<HrmUser> getUsers() {
+        return users;
+    }
+
+    IntObjectMap<HrmDepartment> getDepartments() {
+        return departments;
+    }
+
+    IntObjectMap<HrmSubCompany> getSubCompanies() {
+        return subCompanies;
+    }
+
+    HrmTableState getUserState() {
+        return userState;
+    }
+
+    HrmTableState getDepartmentState() {
+        return departmentState;
+    }
+
+    HrmTableState getSubCompanyState() {
+        return subCompanyState;
+    }
+}
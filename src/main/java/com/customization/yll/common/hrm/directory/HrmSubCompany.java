@@ -0,0 +1,18 @@
+package com.customization.yll.common.hrm.directory;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 分部信息，对应 hrmsubcompany 表
+ * @date 2026/10/17
+ **/
+@Data
+public class HrmSubCompany {
+    private final int id;
+    private final String name;
+    /**
+     * 上级分部id，没有上级分部为 0
+     */
+    private final int parentId;
+}
@@ -0,0 +1,36 @@
+package com.customization.yll.common.hrm.directory;
+
+import com.customization.yll.common.exception.SqlExecuteException;
+import lombok.Data;
+import weaver.conn.RecordSet;
+
+/**
+ * @author 姚礼林
+ * @desc 人力资源表的状态，由行数、最大id和最后修改时间组成，用于判断表数据是否变化
+ * @date 2026/10/17
+ **/
+@Data
+class HrmTableState {
+    private final long count;
+    private final long maxId;
+    /**
+     * 最大的 modified 字段值，表中没有修改时间时为空字符串
+     */
+    private final String maxModified;
+
+    /**
+     * 查询表状态，表中没有 modified 字段时只查询行数和最大id
+     */
+    static HrmTableState of(String tableName, RecordSet recordSet) {
+        String sql = "select count(1) cnt, max(id) max_id, max(modified) max_modified from " + tableName;
+        if (recordSet.executeQuery(sql) && recordSet.next()) {
+            return new HrmTableState(recordSet.getInt("cnt"), recordSet.getInt("max_id"),
+                    recordSet.getString("max_modified"));
+        }
+        sql = "select count(1) cnt, max(id) max_id from " + tableName;
+        if (!recordSet.executeQuery(sql) || !recordSet.next()) {
+            throw new SqlExecuteException("查询人力资源表状态失败，sql: " + sql, sql);
+        }
+        return new HrmTableState(recordSet.getInt("cnt"), recordSet.getInt("max_id"), "");
+    }
+}
@@ -0,0 +1,19 @@
+package com.customization.yll.common.hrm.directory;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 人员信息，对应 hrmresource 表
+ * @date 2026/10/17
+ **/
+@Data
+public class HrmUser {
+    private final int id;
+    private final String lastName;
+    private final String workCode;
+    private final String loginId;
+    private final String mobile;
+    private final int departmentId;
+    private final int subCompanyId;
+}
@@ -0,0 +1,251 @@
+package com.customization.yll.common.hrm.directory;
+
+import com.customization.yll.common.collection.IntObjectMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author 姚礼林
+ * @desc 组织树索引（部门树、分部树），节点按 id 升序保存在数组中，通过二分查找定位，保存上级节点下标、层级，
+ * 以及深度优先遍历的进入序号和子树最后序号（欧拉序区间），判断上下级关系只需比较区间，不需要逐级向上查找。
+ * 全路径按分隔符第一次使用时一次性计算所有节点并缓存。创建后不可修改，组织变化时整棵树重新构建
+ * @date 2026/10/17
+ **/
+public final class OrgTree {
+    /**
+     * 最多缓存多少种分隔符的全路径，超过后不再缓存，每次计算
+     */
+    private static final int MAX_CACHED_SEPARATORS = 16;
+    private static final int NO_PARENT = -1;
+    private final int[] ids;
+    private final String[] names;
+    private final int[] parents;
+    private final int[] depths;
+    /**
+     * 深度优先遍历进入节点时的序号
+     */
+    private final int[] enters;
+    /**
+     * 子树中最大的进入序号，子树节点的进入序号都在 (enters[i], exits[i]] 之间
+     */
+    private final int[] exits;
+    /**
+     * 按深度优先遍历顺序排列的节点下标，上级节点一定排在下级节点之前
+     */
+    private final int[] preOrder;
+    private final ConcurrentHashMap<String, String[]> pathsBySeparator = new ConcurrentHashMap<>();
+
+    /**
+     * @param ids       节点id
+     * @param parentIds 上级节点id，与节点id一一对应，没有上级或上级不存在时视为根节点
+     * @param names     节点名称，与节点id一一对应
+     */
+    public OrgTree(int[] ids, int[] parentIds, String[] names) {
+        if (ids.length != parentIds.length || ids.length != names.length) {
+            throw new IllegalArgumentException("节点id、上级id与名称数量不一致");
+        }
+        int size = ids.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+        this.ids = new int[size];
+        this.names = new String[size];
+        for (int i = 0; i < size; i++) {
+            this.ids[i] = ids[order[i]];
+            this.names[i] = names[order[i]];
+            if (i > 0 && this.ids[i] == this.ids[i - 1]) {
+                throw new IllegalArgumentException("节点id重复：" + this.ids[i]);
+            }
+        }
+        this.parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            int parent = Arrays.binarySearch(this.ids, parentIds[order[i]]);
+            parents[i] = parent < 0 || parent == i ? NO_PARENT : parent;
+        }
+        this.depths = new int[size];
+        this.enters = new int[size];
+        this.exits = new int[size];
+        this.preOrder = new int[size];
+        traverse();
+    }
+
+    public static OrgTree ofDepartments(IntObjectMap<HrmDepartment> departments) {
+        int[] ids = new int[departments.size()];
+        int[] parentIds = new int[ids.length];
+        String[] names = new String[ids.length];
+        int[] index = {0};
+        departments.forEach((id, department) -> {
+            ids[index[0]] = id;
+            parentIds[index[0]] = department.getParentId();
+            names[index[0]] = department.getName();
+            index[0]++;
+        });
+        return new OrgTree(ids, parentIds, names);
+    }
+
+    public static OrgTree ofSubCompanies(IntObjectMap<HrmSubCompany> subCompanies) {
+        int[] ids = new int[subCompanies.size()];
+        int[] parentIds = new int[ids.length];
+        String[] names = new String[ids.length];
+        int[] index = {0};
+        subCompanies.forEach((id, subCompany) -> {
+            ids[index[0]] = id;
+            parentIds[index[0]] = subCompany.getParentId();
+            names[index[0]] = subCompany.getName();
+            index[0]++;
+        });
+        return new OrgTree(ids, parentIds, names);
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 获取上级节点id
+     *
+     * @param id 节点id
+     * @return 上级节点id，节点不存在或为根节点时返回 null
+     */
+    @Nullable
+    public Integer getParentId(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0 || parents[index] == NO_PARENT) {
+            return null;
+        }
+        return ids[parents[index]];
+    }
+
+    /**
+     * 获取节点层级
+     *
+     * @param id 节点id
+     * @return 层级，根节点为 0，节点不存在返回 -1
+     */
+    public int getDepth(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? -1 : depths[index];
+    }
+
+    /**
+     * 判断节点是否为另一个节点的下级（包括间接下级），节点本身不算自己的下级
+     *
+     * @param id         节点id
+     * @param ancestorId 上级节点id
+     * @return 是否为下级，任一节点不存在时返回 false
+     */
+    public boolean isDescendantOf(int id, int ancestorId) {
+        int index = Arrays.binarySearch(ids, id);
+        int ancestor = Arrays.binarySearch(ids, ancestorId);
+        if (index < 0 || ancestor < 0) {
+            return false;
+        }
+        return enters[ancestor] < enters[index] && enters[index] <= exits[ancestor];
+    }
+
+    /**
+     * 获取节点全路径，从根节点开始，如：研发部/测试部
+     *
+     * @param id        节点id
+     * @param separator 分隔符
+     * @return 全路径，节点不存在返回 null
+     */
+    @Nullable
+    public String getFullPath(int id, String separator) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return null;
+        }
+        String[] paths = pathsBySeparator.get(separator);
+        if (paths == null) {
+            paths = buildPaths(separator);
+            if (pathsBySeparator.size() < MAX_CACHED_SEPARATORS) {
+                pathsBySeparator.putIfAbsent(separator, paths);
+            }
+        }
+        return paths[index];
+    }
+
+    private String[] buildPaths(String separator) {
+        String[] paths = new String[ids.length];
+        for (int index : preOrder) {
+            int parent = parents[index];
+            String parentPath = parent == NO_PARENT ? "" : paths[parent];
+            String name = names[index] == null ? "" : names[index];
+            paths[index] = parentPath.isEmpty() ? name : parentPath + separator + name;
+        }
+        return paths;
+    }
+
+    /**
+     * 非递归深度优先遍历，计算层级和欧拉序区间。上级关系成环的节点无法从根节点到达，
+     * 从环上任取一个节点断开作为根节点
+     */
+    private void traverse() {
+        int size = ids.length;
+        // 按上级下标分组的子节点下标（CSR 结构）
+        int[] childStart = new int[size + 1];
+        for (int parent : parents) {
+            if (parent != NO_PARENT) {
+                childStart[parent + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        int[] children = new int[childStart[size]];
+        int[] fill = Arrays.copyOf(childStart, size);
+        for (int i = 0; i < size; i++) {
+            if (parents[i] != NO_PARENT) {
+                children[fill[parents[i]]++] = i;
+            }
+        }
+        boolean[] visited = new boolean[size];
+        int[] stack = new int[size];
+        int[] nextChild = new int[size];
+        int counter = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < size; root++) {
+                if (visited[root] || (pass == 0 && parents[root] != NO_PARENT)) {
+                    continue;
+                }
+                if (pass == 1) {
+                    parents[root] = NO_PARENT;
+                }
+                int top = 0;
+                stack[0] = root;
+                visited[root] = true;
+                depths[root] = 0;
+                enters[root] = counter;
+                preOrder[counter++] = root;
+                nextChild[root] = childStart[root];
+                while (top >= 0) {
+                    int node = stack[top];
+                    if (nextChild[node] == childStart[node + 1]) {
+                        exits[node] = counter - 1;
+                        top--;
+                        continue;
+                    }
+                    int child = children[nextChild[node]++];
+                    if (visited[child]) {
+                        continue;
+                    }
+                    visited[child] = true;
+                    depths[child] = depths[node] + 1;
+                    enters[child] = counter;
+                    preOrder[counter++] = child;
+                    nextChild[child] = childStart[child];
+                    stack[++top] = child;
+                }
+            }
+        }
+    }
+}
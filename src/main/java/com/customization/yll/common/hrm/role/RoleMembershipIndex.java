@@ -0,0 +1,171 @@
+package com.customization.yll.common.hrm.role;
+
+import com.customization.yll.common.cache.TableSignature;
+import com.customization.yll.common.collection.IntObjectMap;
+import com.customization.yll.common.collection.RoaringIntSet;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 角色成员索引，每个角色的成员保存为压缩的 int 集合，同时保存每个人员所属的角色（按id升序）。
+ * 创建后不可修改，新增成员时复制后生成新索引
+ * @date 2026/10/17
+ **/
+public final class RoleMembershipIndex {
+    private static final int[] EMPTY = new int[0];
+    private final IntObjectMap<RoaringIntSet> membersByRole;
+    private final IntObjectMap<int[]> rolesByUser;
+    private final TableSignature signature;
+
+    private RoleMembershipIndex(IntObjectMap<RoaringIntSet> membersByRole, IntObjectMap<int[]> rolesByUser,
+                                TableSignature signature) {
+        this.membersByRole = membersByRole;
+        this.rolesByUser = rolesByUser;
+        this.signature = signature;
+    }
+
+    /**
+     * 构建角色成员索引
+     *
+     * @param roleIds   角色id
+     * @param userIds   人员id，与角色id一一对应
+     * @param size      有效的成员记录数量，数组可以比它长
+     * @param signature 加载时的表签名
+     * @return 索引
+     */
+    static RoleMembershipIndex build(int[] roleIds, int[] userIds, int size, TableSignature signature) {
+        IntObjectMap<RoaringIntSet> membersByRole = new IntObjectMap<>();
+        group(roleIds, userIds, size).forEach((roleId, members) -> membersByRole.put(roleId,
+                RoaringIntSet.of(members)));
+        return new RoleMembershipIndex(membersByRole, group(userIds, roleIds, size), signature);
+    }
+
+    /**
+     * 加入新增的成员记录，返回新索引
+     *
+     * @param roleIds   角色id
+     * @param userIds   人员id，与角色id一一对应
+     * @param size      有效的成员记录数量
+     * @param signature 新的表签名
+     * @return 新索引
+     */
+    RoleMembershipIndex withMembers(int[] roleIds, int[] userIds, int size, TableSignature signature) {
+        IntObjectMap<RoaringIntSet> newMembersByRole = membersByRole.copy();
+        group(roleIds, userIds, size).forEach((roleId, members) -> {
+            RoaringIntSet current = newMembersByRole.get(roleId);
+            newMembersByRole.put(roleId, current == null ? RoaringIntSet.of(members) : current.with(members));
+        });
+        IntObjectMap<int[]> newRolesByUser = rolesByUser.copy();
+        group(userIds, roleIds, size).forEach((userId, roles) -> {
+            int[] current = newRolesByUser.get(userId);
+            newRolesByUser.put(userId, current == null ? roles : mergeSorted(current, roles));
+        });
+        return new RoleMembershipIndex(newMembersByRole, newRolesByUser, signature);
+    }
+
+    public boolean isUserInRole(int userId, int roleId) {
+        RoaringIntSet members = membersByRole.get(roleId);
+        return members != null && members.contains(userId);
+    }
+
+    /**
+     * 过滤出属于角色的人员
+     *
+     * @param userIds 人员id
+     * @param roleId  角色id
+     * @return 属于角色的人员id，保持传入的顺序
+     */
+    public int[] filterUsersInRole(int[] userIds, int roleId) {
+        RoaringIntSet members = membersByRole.get(roleId);
+        return members == null ? EMPTY : members.filter(userIds);
+    }
+
+    /**
+     * 获取角色所有成员
+     *
+     * @param roleId 角色id
+     * @return 成员人员id，角色不存在或没有成员时为空集合
+     */
+    public RoaringIntSet getMembers(int roleId) {
+        RoaringIntSet members = membersByRole.get(roleId);
+        return members == null ? RoaringIntSet.empty() : members;
+    }
+
+    /**
+     * 获取人员所属的角色
+     *
+     * @param userId 人员id
+     * @return 角色id，按id升序，不属于任何角色时为空数组
+     */
+    public int[] getRoles(int userId) {
+        int[] roles = rolesByUser.get(userId);
+        return roles == null ? EMPTY : roles.clone();
+    }
+
+    public int getRoleCount() {
+        return membersByRole.size();
+    }
+
+    TableSignature getSignature() {
+        return signature;
+    }
+
+    /**
+     * 按 key 分组，每组的值去重并升序
+     */
+    private static IntObjectMap<int[]> group(int[] keys, int[] values, int size) {
+        long[] pairs = new long[size];
+        for (int i = 0; i < size; i++) {
+            pairs[i] = ((long) keys[i] << 32) | (values[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+        IntObjectMap<int[]> groups = new IntObjectMap<>();
+        int start = 0;
+        while (start < size) {
+            int key = (int) (pairs[start] >> 32);
+            int[] group = new int[countGroup(pairs, start)];
+            int filled = 0;
+            int end = start;
+            while (end < size && (int) (pairs[end] >> 32) == key) {
+                if (end == start || pairs[end] != pairs[end - 1]) {
+                    group[filled++] = (int) pairs[end];
+                }
+                end++;
+            }
+            groups.put(key, group);
+            start = end;
+        }
+        return groups;
+    }
+
+    private static int countGroup(long[] pairs, int start) {
+        int key = (int) (pairs[start] >> 32);
+        int count = 0;
+        for (int i = start; i < pairs.length && (int) (pairs[i] >> 32) == key; i++) {
+            if (i == start || pairs[i] != pairs[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int[] mergeSorted(int[] a, int[] b) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j == b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (size == 0 || merged[size - 1] != next) {
+                merged[size++] = next;
+            }
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+}
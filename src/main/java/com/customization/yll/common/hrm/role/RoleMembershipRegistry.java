@@ -0,0 +1,95 @@
+package com.customization.yll.common.hrm.role;
+
+import com.customization.yll.common.cache.AbstractSnapshotRegistry;
+import com.customization.yll.common.cache.TableSignature;
+import com.customization.yll.common.exception.SqlExecuteException;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 角色成员注册表，一次性加载 hrmrolemembers 为 {@link RoleMembershipIndex}，
+ * {@link com.customization.yll.common.hrm.service.impl.HrmRoleServiceImpl} 开启后直接从内存判断角色成员。<br>
+ * 后台按间隔比较表的行数和最大id，只有新增成员时只加载 id 更大的行并合并到新索引，有删除时整表重新加载。
+ * 修改已有成员记录（如更换角色）无法通过签名发现，修改后需要调用 {@link #refresh()}
+ * @date 2026/10/17
+ **/
+public class RoleMembershipRegistry extends AbstractSnapshotRegistry<RoleMembershipIndex> {
+    private static final RoleMembershipRegistry INSTANCE = new RoleMembershipRegistry();
+    private static final String MEMBER_TABLE = "hrmrolemembers";
+    private static final String MEMBER_SQL = "select roleid,resourceid from hrmrolemembers";
+
+    private RoleMembershipRegistry() {
+        super("RoleMembership");
+    }
+
+    public static RoleMembershipRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected RoleMembershipIndex loadAll() {
+        RecordSet recordSet = new RecordSet();
+        return load(TableSignature.of(MEMBER_TABLE, recordSet), recordSet);
+    }
+
+    @Nullable
+    @Override
+    protected RoleMembershipIndex checkForChanges(RoleMembershipIndex current) {
+        RecordSet recordSet = new RecordSet();
+        TableSignature signature = TableSignature.of(MEMBER_TABLE, recordSet);
+        TableSignature old = current.getSignature();
+        if (signature.equals(old)) {
+            return null;
+        }
+        MemberRows appended = readMembers(MEMBER_SQL + " where id>?", recordSet, old.getMaxId());
+        if (!signature.isAppendOnly(old, appended.size)) {
+            log.info("角色成员有删除，重新加载全部");
+            return load(signature, recordSet);
+        }
+        log.info("角色成员增量加载，新增记录数量：" + appended.size);
+        return current.withMembers(appended.roleIds, appended.userIds, appended.size, signature);
+    }
+
+    private static RoleMembershipIndex load(TableSignature signature, RecordSet recordSet) {
+        MemberRows rows = readMembers(MEMBER_SQL, recordSet);
+        return RoleMembershipIndex.build(rows.roleIds, rows.userIds, rows.size, signature);
+    }
+
+    private static MemberRows readMembers(String sql, RecordSet recordSet, Object... params) {
+        if (!recordSet.executeQuery(sql, params)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: " + Arrays.toString(params), sql);
+        }
+        MemberRows rows = new MemberRows(Math.max(recordSet.getCounts(), 16));
+        while (recordSet.next()) {
+            rows.add(recordSet.getInt("roleid"), recordSet.getInt("resourceid"));
+        }
+        return rows;
+    }
+
+    /**
+     * 成员记录，按列保存，避免每行创建对象
+     */
+    private static final class MemberRows {
+        private int[] roleIds;
+        private int[] userIds;
+        private int size;
+
+        MemberRows(int capacity) {
+            roleIds = new int[capacity];
+            userIds = new int[capacity];
+        }
+
+        void add(int roleId, int userId) {
+            if (size == roleIds.length) {
+                roleIds = Arrays.copyOf(roleIds, size * 2);
+                userIds = Arrays.copyOf(userIds, size * 2);
+            }
+            roleIds[size] = roleId;
+            userIds[size] = userId;
+            size++;
+        }
+    }
+}
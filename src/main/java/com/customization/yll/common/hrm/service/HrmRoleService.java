@@ -13,4 +13,19 @@ public interface HrmRoleService {
      * @param roleId 角色id
      */
     boolean isUserInRole(int userId, int roleId);
+
+    /**
+     * 过滤出属于某一角色的用户
+     * @param userIds 用户id
+     * @param roleId 角色id
+     * @return 属于角色的用户id，保持传入的顺序
+     */
+    int[] filterUsersInRole(int[] userIds, int roleId);
+
+    /**
+     * 获取用户所属的角色
+     * @param userId 用户id
+     * @return 角色id，按id升序
+     */
+    int[] rolesOf(int userId);
 }
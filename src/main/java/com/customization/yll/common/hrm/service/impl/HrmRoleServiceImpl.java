@@ -1,15 +1,30 @@
 package com.customization.yll.common.hrm.service.impl;
 
+import cn.hutool.core.collection.CollUtil;
 import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.hrm.role.RoleMembershipIndex;
+import com.customization.yll.common.hrm.role.RoleMembershipRegistry;
 import com.customization.yll.common.hrm.service.HrmRoleService;
+import com.customization.yll.common.util.SqlUtil;
 import weaver.conn.RecordSet;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author 姚礼林
- * @desc 人力资源角色业务类
+ * @desc 人力资源角色业务类，开启 {@link RoleMembershipRegistry} 后直接从内存中的角色成员索引判断，否则查询数据库
  * @date 2025/12/30
  **/
 public class HrmRoleServiceImpl implements HrmRoleService {
+    /**
+     * 批量查询时 IN 子句中最多的参数数量
+     */
+    private static final int IN_CLAUSE_SIZE = 500;
     private final RecordSet recordSet;
 
     public HrmRoleServiceImpl(RecordSet recordSet) {
@@ -29,8 +44,10 @@ public class HrmRoleServiceImpl implements HrmRoleService {
         if (userId < 1) {
             throw new IllegalArgumentException("[userId] 参数不正确，请传入大于0的数字");
         }
-        if (roleId < 1) {
-            throw new IllegalArgumentException("[roleId] 角色id参数不正确，请传入大于0的数字");
+        checkRoleId(roleId);
+        RoleMembershipIndex index = RoleMembershipRegistry.getInstance().getSnapshot();
+        if (index != null) {
+            return index.isUserInRole(userId, roleId);
         }
         if (!recordSet.executeQuery("SELECT id FROM hrmrolemembers WHERE roleid=? AND resourceid=?",
                 roleId, userId)) {
@@ -38,4 +55,88 @@ public class HrmRoleServiceImpl implements HrmRoleService {
         }
         return recordSet.next();
     }
+
+    /**
+     * 过滤出属于某一角色的用户，未开启注册表时按每批 {@link #IN_CLAUSE_SIZE} 个用户查询
+     *
+     * @param userIds 用户id
+     * @param roleId  角色id
+     * @return 属于角色的用户id，保持传入的顺序
+     * @throws SqlExecuteException      如果 sql 执行失败则抛出此异常
+     * @throws IllegalArgumentException 如果参数错误则抛出此异常，roleId 需要大于 0
+     */
+    @Override
+    public int[] filterUsersInRole(int[] userIds, int roleId) throws SqlExecuteException {
+        checkRoleId(roleId);
+        if (userIds.length == 0) {
+            return new int[0];
+        }
+        RoleMembershipIndex index = RoleMembershipRegistry.getInstance().getSnapshot();
+        if (index != null) {
+            return index.filterUsersInRole(userIds, roleId);
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(userIds.length * 2);
+        for (int userId : userIds) {
+            distinctIds.add(userId);
+        }
+        Set<Integer> members = new HashSet<>();
+        for (List<Integer> ids : CollUtil.split(distinctIds, IN_CLAUSE_SIZE)) {
+            List<Object> params = new ArrayList<>(ids.size() + 1);
+            params.add(roleId);
+            params.addAll(ids);
+            if (!recordSet.executeQuery("SELECT resourceid FROM hrmrolemembers WHERE roleid=? AND resourceid IN ("
+                    + SqlUtil.buildInClausePlaceholders(ids.size()) + ")", params.toArray())) {
+                throw new SqlExecuteException("查询人力资源角色成员表出错");
+            }
+            while (recordSet.next()) {
+                members.add(recordSet.getInt("resourceid"));
+            }
+        }
+        int[] result = new int[userIds.length];
+        int size = 0;
+        for (int userId : userIds) {
+            if (members.contains(userId)) {
+                result[size++] = userId;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 获取用户所属的角色
+     *
+     * @param userId 用户id
+     * @return 角色id，按id升序
+     * @throws SqlExecuteException      如果 sql 执行失败则抛出此异常
+     * @throws IllegalArgumentException 如果参数错误则抛出此异常，userId 需要大于 0
+     */
+    @Override
+    public int[] rolesOf(int userId) throws SqlExecuteException {
+        if (userId < 1) {
+            throw new IllegalArgumentException("[userId] 参数不正确，请传入大于0的数字");
+        }
+        RoleMembershipIndex index = RoleMembershipRegistry.getInstance().getSnapshot();
+        if (index != null) {
+            return index.getRoles(userId);
+        }
+        if (!recordSet.executeQuery("SELECT DISTINCT roleid FROM hrmrolemembers WHERE resourceid=? ORDER BY roleid",
+                userId)) {
+            throw new SqlExecuteException("查询人力资源角色成员表出错");
+        }
+        int[] roles = new int[Math.max(recordSet.getCounts(), 0)];
+        int size = 0;
+        while (recordSet.next()) {
+            if (size == roles.length) {
+                roles = Arrays.copyOf(roles, size * 2 + 1);
+            }
+            roles[size++] = recordSet.getInt("roleid");
+        }
+        return Arrays.copyOf(roles, size);
+    }
+
+    private static void checkRoleId(int roleId) {
+        if (roleId < 1) {
+            throw new IllegalArgumentException("[roleId] 角色id参数不正确，请传入大于0的数字");
+        }
+    }
 }
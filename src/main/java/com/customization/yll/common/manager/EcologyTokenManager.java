@@ -98,26 +98,35 @@ public class EcologyTokenManager {
      * @return token，如果获取失败返回空字符串
      */
     public String getToken(boolean isNewToken, String publicKey) {
-        Object cacheValue = CacheUtil.getCache(TOKEN_CACHE_KEY);
-        log.info("缓存中的token是否存在："+ (cacheValue != null));
-        if (StrUtil.isNotEmpty(publicKey) && !isTokenOverDue() && !isNewToken) {
-            log.info("获取缓存中的token");
-            return (String) cacheValue;
+        Object cachedToken = CacheUtil.getCache(TOKEN_CACHE_KEY);
+        String token;
+        // 同一时间只有一个线程获取新的token，其他线程等待其结果
+        if (StrUtil.isEmpty(publicKey) || isNewToken || isTokenOverDue(cachedToken)) {
+            // 只替换读取到的旧token，其他线程已经获取到新token时直接使用
+            token = CacheUtil.reload(TOKEN_CACHE_KEY, TEN_MINUTES, cachedToken, () -> loadToken(publicKey));
+        } else {
+            token = CacheUtil.getOrLoad(TOKEN_CACHE_KEY, TEN_MINUTES, () -> loadToken(publicKey));
         }
+        return StrUtil.nullToEmpty(token);
+    }
+
+    /**
+     * 调用接口获取新的token，获取失败返回 null
+     */
+    private String loadToken(String publicKey) {
         log.info("获取新的token");
         String secret = Util.null2String(CacheUtil.getCache(SECRET_CACHE_KEY));
         String encryptSecret = getEncryptSecret(publicKey, secret);
         if (encryptSecret.isEmpty()) {
-            return "";
+            return null;
         }
         try {
             String token = fetchToken(encryptSecret);
-            CacheUtil.putCache(TOKEN_CACHE_KEY, token, TEN_MINUTES);
             CacheUtil.putCache(TOKEN_TIME_KEY, System.currentTimeMillis()+"", TEN_MINUTES);
             return token;
         } catch (ApiCallException | ApiResultFailedException e) {
             log.error("获取token失败", e);
-            return "";
+            return null;
         }
     }
 
@@ -143,10 +152,10 @@ public class EcologyTokenManager {
 
     /**
      * 判断token是否过期
+     * @param tokenCache 缓存中的token
      * @return 如果过期返回true
      */
-    private boolean isTokenOverDue() {
-        Object tokenCache = CacheUtil.getCache(TOKEN_CACHE_KEY);
+    private boolean isTokenOverDue(Object tokenCache) {
         Object tokenTimeCache = CacheUtil.getCache(TOKEN_TIME_KEY);
         log.info("tokenTimeCache:"+Util.null2String(tokenTimeCache));
         boolean isRedis = CacheUtil.isRedis();
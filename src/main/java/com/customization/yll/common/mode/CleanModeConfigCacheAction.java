@@ -2,7 +2,6 @@ package com.customization.yll.common.mode;
 
 import com.customization.yll.common.mode.handle.ModeActionExceptionHandler;
 import com.customization.yll.common.mode.util.ModeConfigUtil;
-import com.customization.yll.common.util.CacheUtil;
 import weaver.conn.RecordSet;
 import weaver.formmode.customjavacode.AbstractModeExpandJavaCodeNew;
 import weaver.soa.workflow.request.RequestInfo;
@@ -23,12 +22,9 @@ public class CleanModeConfigCacheAction extends AbstractModeExpandJavaCodeNew {
             RequestInfo requestInfo = (RequestInfo)param.get("RequestInfo");
             int billId = Integer.parseInt(requestInfo.getRequestid());
             RecordSet recordSet = new RecordSet();
-            recordSet.executeQuery("select z.config_id,m.name from "+ ModeConfigUtil.TABLE_NAME + " z join "
-                    + ModeConfigUtil.TABLE_NAME + "_dt1 m on m.mainid=z.id where m.mainid=?", billId);
+            recordSet.executeQuery("select config_id from " + ModeConfigUtil.TABLE_NAME + " where id=?", billId);
             while (recordSet.next()) {
-                String configId = recordSet.getString("config_id");
-                String propName = recordSet.getString("name");
-                CacheUtil.deleteCache(ModeConfigUtil.getCacheKey(configId,propName));
+                ModeConfigUtil.invalidateConfig(recordSet.getString("config_id"));
             }
         } catch (Exception e) {
             return ModeActionExceptionHandler.handle("清除缓存失败", e, this.getClass());
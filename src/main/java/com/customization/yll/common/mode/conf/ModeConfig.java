@@ -0,0 +1,75 @@
+package com.customization.yll.common.mode.conf;
+
+import cn.hutool.core.util.StrUtil;
+import com.customization.yll.common.exception.PropNotConfigureException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 建模统一配置中心的一个配置，包含该配置id下 uf_config_center_dt1 的所有属性。创建后不可修改，
+ * 可以作为一个整体缓存
+ * @date 2026/10/17
+ **/
+public final class ModeConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String configId;
+    private final LinkedHashMap<String, String> values;
+
+    /**
+     * @param configId 配置id
+     * @param values   属性名到属性值，按明细行顺序
+     */
+    public ModeConfig(String configId, Map<String, String> values) {
+        this.configId = configId;
+        this.values = new LinkedHashMap<>(values);
+    }
+
+    public String getConfigId() {
+        return configId;
+    }
+
+    /**
+     * 获取属性值
+     *
+     * @param propName 属性名
+     * @return 属性值，属性不存在返回 null
+     */
+    @Nullable
+    public String getValue(String propName) {
+        return values.get(propName);
+    }
+
+    /**
+     * 获取属性值
+     *
+     * @param propName 属性名
+     * @param required 属性值是否必需，如果为true，则属性值必需存在，否则抛出异常
+     * @return 属性值，属性不存在返回空字符串
+     * @throws PropNotConfigureException 属性值不存在异常
+     */
+    public String getValue(String propName, boolean required) throws PropNotConfigureException {
+        String value = StrUtil.nullToEmpty(values.get(propName));
+        if (required && StrUtil.isBlank(value)) {
+            throw new PropNotConfigureException(String.format("配置id：%s， 属性[%s]未配置值", configId, propName));
+        }
+        return value;
+    }
+
+    public boolean contains(String propName) {
+        return values.containsKey(propName);
+    }
+
+    /**
+     * 获取所有属性
+     *
+     * @return 属性名到属性值，不可修改
+     */
+    public Map<String, String> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+}
@@ -0,0 +1,119 @@
+package com.customization.yll.common.mode.metadata;
+
+import com.customization.yll.common.bean.SearchPageFieldInfo;
+import com.customization.yll.common.cache.TableSignature;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author 姚礼林
+ * @desc 建模目录快照，按建模id、主表名（不区分大小写）、查询id建立索引，建模和查询信息创建后不可修改。
+ * 查询列表字段按查询id第一次使用时加载并保存在快照中，快照替换后随之失效
+ * @date 2026/10/17
+ **/
+public final class ModeCatalog {
+    private final Map<Integer, ModeMeta> modes;
+    private final Map<String, ModeMeta> modesByTableName;
+    /**
+     * 查询id到建模id
+     */
+    private final Map<Integer, Integer> searchModeIds;
+    private final Map<Integer, List<SearchPageFieldInfo>> searchFields = new ConcurrentHashMap<>();
+    private final TableSignature modeSignature;
+    private final TableSignature formSignature;
+    private final TableSignature searchSignature;
+    private final TableSignature searchFieldSignature;
+
+    ModeCatalog(Map<Integer, ModeMeta> modes, Map<Integer, Integer> searchModeIds, TableSignature modeSignature,
+                TableSignature formSignature, TableSignature searchSignature, TableSignature searchFieldSignature) {
+        this.modes = Collections.unmodifiableMap(modes);
+        this.searchModeIds = Collections.unmodifiableMap(searchModeIds);
+        Map<String, ModeMeta> byTableName = new HashMap<>(Math.max(16, modes.size() * 2));
+        for (ModeMeta mode : modes.values()) {
+            if (!mode.getTableName().isEmpty()) {
+                // 同一张表有多个建模时取 id 最小的建模
+                byTableName.merge(mode.getTableName().toLowerCase(), mode,
+                        (a, b) -> a.getId() <= b.getId() ? a : b);
+            }
+        }
+        this.modesByTableName = byTableName;
+        this.modeSignature = modeSignature;
+        this.formSignature = formSignature;
+        this.searchSignature = searchSignature;
+        this.searchFieldSignature = searchFieldSignature;
+    }
+
+    @Nullable
+    public ModeMeta getMode(int modeId) {
+        return modes.get(modeId);
+    }
+
+    /**
+     * 根据建模主表名获取建模，不区分大小写
+     *
+     * @param tableName 建模主表名
+     * @return 建模信息，同一张表有多个建模时返回 id 最小的建模，不存在返回 null
+     */
+    @Nullable
+    public ModeMeta getModeByTableName(String tableName) {
+        return modesByTableName.get(tableName.toLowerCase());
+    }
+
+    /**
+     * 获取查询所属的建模
+     *
+     * @param searchId 查询id，对应 mode_customsearch 表的id
+     * @return 建模信息，不存在返回 null
+     */
+    @Nullable
+    public ModeMeta getSearchMode(int searchId) {
+        Integer modeId = searchModeIds.get(searchId);
+        return modeId == null ? null : modes.get(modeId);
+    }
+
+    public int getModeCount() {
+        return modes.size();
+    }
+
+    /**
+     * 获取已加载的查询列表字段，调用方不能修改返回的对象
+     *
+     * @param searchId 查询id
+     * @return 查询列表字段，未加载返回 null
+     */
+    @Nullable
+    public List<SearchPageFieldInfo> getSearchFields(int searchId) {
+        return searchFields.get(searchId);
+    }
+
+    /**
+     * 保存查询列表字段，保存后不能再修改
+     *
+     * @param searchId 查询id
+     * @param fields   查询列表字段
+     */
+    public void putSearchFields(int searchId, List<SearchPageFieldInfo> fields) {
+        searchFields.put(searchId, Collections.unmodifiableList(fields));
+    }
+
+    TableSignature getModeSignature() {
+        return modeSignature;
+    }
+
+    TableSignature getFormSignature() {
+        return formSignature;
+    }
+
+    TableSignature getSearchSignature() {
+        return searchSignature;
+    }
+
+    TableSignature getSearchFieldSignature() {
+        return searchFieldSignature;
+    }
+}
@@ -0,0 +1,79 @@
+package com.customization.yll.common.mode.metadata;
+
+import cn.hutool.core.convert.Convert;
+import com.customization.yll.common.cache.AbstractSnapshotRegistry;
+import com.customization.yll.common.cache.TableSignature;
+import com.customization.yll.common.exception.SqlExecuteException;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 建模目录注册表，一次性加载所有建模（modeinfo 及表单主表名）和建模查询（mode_customsearch），
+ * {@link com.customization.yll.common.util.ModeUtil} 开启后优先从这里读取，找不到时再查询数据库，
+ * 高频插入建模数据时不需要每次根据表名查询建模id。<br>
+ * 后台按间隔比较 modeinfo、workflow_bill、mode_customsearch、mode_customdspfield 的行数和id范围，
+ * 有变化时整体重新加载（这几张表数据量都不大）。修改已有建模的表单或查询列表字段的显示设置无法自动发现，
+ * 修改后请调用 {@link #refresh()}
+ * @date 2026/10/17
+ **/
+public class ModeCatalogRegistry extends AbstractSnapshotRegistry<ModeCatalog> {
+    private static final ModeCatalogRegistry INSTANCE = new ModeCatalogRegistry();
+    private static final String MODE_SQL = "select b.id,b.formid,a.tablename from modeinfo b " +
+            "left join workflow_bill a on b.formid = a.id";
+    private static final String SEARCH_SQL = "select id,modeid from mode_customsearch";
+
+    private ModeCatalogRegistry() {
+        super("ModeCatalog");
+    }
+
+    public static ModeCatalogRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected ModeCatalog loadAll() {
+        RecordSet recordSet = new RecordSet();
+        TableSignature modeSignature = TableSignature.of("modeinfo", recordSet);
+        TableSignature formSignature = TableSignature.of("workflow_bill", recordSet);
+        TableSignature searchSignature = TableSignature.of("mode_customsearch", recordSet);
+        TableSignature searchFieldSignature = TableSignature.of("mode_customdspfield", recordSet);
+        Map<Integer, ModeMeta> modes = new HashMap<>(Math.max(16, (int) modeSignature.getCount() * 2));
+        execute(MODE_SQL, recordSet);
+        while (recordSet.next()) {
+            ModeMeta mode = new ModeMeta(recordSet.getInt("id"), Convert.toInt(recordSet.getString("formid"), 0),
+                    recordSet.getString("tablename"));
+            modes.put(mode.getId(), mode);
+        }
+        Map<Integer, Integer> searchModeIds = new HashMap<>(Math.max(16, (int) searchSignature.getCount() * 2));
+        execute(SEARCH_SQL, recordSet);
+        while (recordSet.next()) {
+            searchModeIds.put(recordSet.getInt("id"), recordSet.getInt("modeid"));
+        }
+        return new ModeCatalog(modes, searchModeIds, modeSignature, formSignature, searchSignature,
+                searchFieldSignature);
+    }
+
+    @Nullable
+    @Override
+    protected ModeCatalog checkForChanges(ModeCatalog current) {
+        RecordSet recordSet = new RecordSet();
+        if (TableSignature.of("modeinfo", recordSet).equals(current.getModeSignature())
+                && TableSignature.of("workflow_bill", recordSet).equals(current.getFormSignature())
+                && TableSignature.of("mode_customsearch", recordSet).equals(current.getSearchSignature())
+                && TableSignature.of("mode_customdspfield", recordSet).equals(current.getSearchFieldSignature())) {
+            return null;
+        }
+        log.info("建模目录有变化，重新加载");
+        return loadAll();
+    }
+
+    private static void execute(String sql, RecordSet recordSet) {
+        if (!recordSet.executeQuery(sql)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql, sql);
+        }
+    }
+}
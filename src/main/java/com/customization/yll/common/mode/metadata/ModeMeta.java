@@ -0,0 +1,21 @@
+package com.customization.yll.common.mode.metadata;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 建模信息，对应 modeinfo 表及其表单的主表名
+ * @date 2026/10/17
+ **/
+@Data
+public class ModeMeta {
+    private final int id;
+    /**
+     * 表单id，对应 workflow_bill 表的id
+     */
+    private final int formId;
+    /**
+     * 建模主表名，表单不存在时为空字符串
+     */
+    private final String tableName;
+}
@@ -0,0 +1,352 @@
+package com.customization.yll.common.mode.right;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import weaver.formmode.setup.ModeRightInfo;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 姚礼林
+ * @desc 建模数据权限重构队列。未开启时 {@link #submit(int, int, int)} 直接在调用线程执行权限重构；
+ * 开启后只把数据加入队列就返回，由固定数量的后台线程按批执行，同一条数据（建模id、数据id）在等待期间重复提交只执行一次，
+ * 执行失败的数据延迟后重试，超过重试次数记录错误日志后放弃。<br>
+ * 需要在插入后马上读取权限的调用方，调用 {@link #flush(long, TimeUnit)} 等待队列处理完。
+ * 后台线程使用自己的数据库连接，调用方在事务中插入时，提交前新数据对其不可见，与同步执行时相同
+ * @date 2026/10/17
+ **/
+public class ModeRightRebuildQueue {
+    private static final Logger log = LoggerFactory.getLogger(ModeRightRebuildQueue.class);
+    private static final ModeRightRebuildQueue INSTANCE = new ModeRightRebuildQueue(ModeRightRebuildQueue::rebuild);
+    public static final int DEFAULT_WORKERS = 2;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    /**
+     * 队列中最多等待的数据数量，超过后在调用线程中同步执行，避免导入速度远超处理速度时占满内存
+     */
+    static final int MAX_PENDING = 100_000;
+    /**
+     * 一批中有数据执行失败时，间隔此时间再重试，单位毫秒
+     */
+    static final long RETRY_DELAY_MILLIS = 1000;
+    /**
+     * 关闭队列时等待后台线程处理完的最长时间，单位秒
+     */
+    private static final long SHUTDOWN_WAIT_SECONDS = 60;
+    private final RightRebuilder rebuilder;
+    private final Object lock = new Object();
+    /**
+     * 等待执行的数据，key 为建模id与数据id组合，保持提交顺序
+     */
+    private final LinkedHashMap<Long, Task> pending = new LinkedHashMap<>();
+    /**
+     * 已取出正在执行（包括等待重试）的数据数量
+     */
+    private int inFlight;
+    private int activeWorkers;
+    private int workers;
+    private int batchSize;
+    private int maxAttempts;
+    /**
+     * 为 null 表示未开启
+     */
+    private ExecutorService executor;
+
+    ModeRightRebuildQueue(RightRebuilder rebuilder) {
+        this.rebuilder = rebuilder;
+    }
+
+    public static ModeRightRebuildQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 使用默认参数开启队列
+     */
+    public void enable() {
+        enable(DEFAULT_WORKERS, DEFAULT_BATCH_SIZE, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * 开启队列，已开启时先关闭再按新参数开启
+     *
+     * @param workers     后台线程数量
+     * @param batchSize   每个线程每次取出的数据数量
+     * @param maxAttempts 每条数据最多执行次数，包括第一次
+     */
+    public synchronized void enable(int workers, int batchSize, int maxAttempts) {
+        if (workers < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("[workers]、[batchSize]、[maxAttempts] 必需大于 0");
+        }
+        disable();
+        ThreadPoolExecutor service = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("mode-right-rebuild", true));
+        service.allowCoreThreadTimeOut(true);
+        synchronized (lock) {
+            this.workers = workers;
+            this.batchSize = batchSize;
+            this.maxAttempts = maxAttempts;
+            this.executor = service;
+        }
+        log.info("建模权限重构队列已开启，线程数：" + workers + "，每批数量：" + batchSize);
+    }
+
+    /**
+     * 关闭队列，等待后台线程处理完已提交的数据，之后提交的数据在调用线程中同步执行
+     */
+    public synchronized void disable() {
+        ExecutorService service;
+        synchronized (lock) {
+            service = executor;
+            executor = null;
+        }
+        if (service == null) {
+            return;
+        }
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("建模权限重构队列关闭超时，剩余数据在当前线程中执行");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 后台线程被拒绝或超时未处理完的数据
+        List<Task> remaining;
+        synchronized (lock) {
+            remaining = new ArrayList<>(pending.values());
+            pending.clear();
+            inFlight += remaining.size();
+        }
+        try {
+            remaining.forEach(this::rebuildSafely);
+        } finally {
+            synchronized (lock) {
+                inFlight -= remaining.size();
+                lock.notifyAll();
+            }
+        }
+        log.info("建模权限重构队列已关闭");
+    }
+
+    public boolean isEnabled() {
+        synchronized (lock) {
+            return executor != null;
+        }
+    }
+
+    /**
+     * 提交权限重构，开启时加入队列后返回，未开启或队列已满时在当前线程执行
+     *
+     * @param modeId 建模id
+     * @param dataId 数据id
+     * @param userId 创建人id
+     */
+    public void submit(int modeId, int dataId, int userId) {
+        ExecutorService service;
+        boolean startWorker = false;
+        synchronized (lock) {
+            service = executor;
+            if (service != null && pending.size() < MAX_PENDING) {
+                pending.putIfAbsent(key(modeId, dataId), new Task(modeId, dataId, userId));
+                startWorker = reserveWorker();
+            } else {
+                service = null;
+            }
+        }
+        if (service == null) {
+            rebuilder.rebuild(new Task(modeId, dataId, userId));
+            return;
+        }
+        if (startWorker) {
+            startWorker(service);
+        }
+    }
+
+    /**
+     * 等待队列中的数据全部处理完（包括等待重试的数据），持续有新数据提交时可能等到超时
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 是否在超时前处理完
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ExecutorService service = null;
+        synchronized (lock) {
+            // 提交后线程池拒绝执行等情况下，队列中有数据但没有后台线程
+            if (!pending.isEmpty() && activeWorkers == 0 && executor != null && reserveWorker()) {
+                service = executor;
+            }
+        }
+        if (service != null) {
+            startWorker(service);
+        }
+        synchronized (lock) {
+            while (!pending.isEmpty() || inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 获取等待执行和正在执行的数据数量
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size() + inFlight;
+        }
+    }
+
+    private boolean reserveWorker() {
+        if (activeWorkers >= workers) {
+            return false;
+        }
+        activeWorkers++;
+        return true;
+    }
+
+    private void startWorker(ExecutorService service) {
+        try {
+            service.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (lock) {
+                activeWorkers--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 后台线程循环按批取出数据执行，队列为空时结束。意外退出时也释放线程名额和正在执行的数量，
+     * 避免 {@link #flush(long, TimeUnit)} 永远等不到结束、之后无法再启动后台线程
+     */
+    private void drain() {
+        // 已取出还未计入完成的数量
+        int taken = 0;
+        boolean exited = false;
+        try {
+            while (true) {
+                List<Task> batch = new ArrayList<>();
+                synchronized (lock) {
+                    Iterator<Task> iterator = pending.values().iterator();
+                    while (iterator.hasNext() && batch.size() < batchSize) {
+                        batch.add(iterator.next());
+                        iterator.remove();
+                    }
+                    if (batch.isEmpty()) {
+                        activeWorkers--;
+                        exited = true;
+                        lock.notifyAll();
+                        return;
+                    }
+                    inFlight += batch.size();
+                    taken = batch.size();
+                }
+                List<Task> failed = new ArrayList<>();
+                for (Task task : batch) {
+                    if (!rebuildSafely(task)) {
+                        failed.add(task);
+                    }
+                }
+                boolean interrupted = false;
+                if (!failed.isEmpty()) {
+                    try {
+                        Thread.sleep(RETRY_DELAY_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        interrupted = true;
+                    }
+                }
+                synchronized (lock) {
+                    inFlight -= taken;
+                    taken = 0;
+                    for (Task task : failed) {
+                        if (task.attempts >= maxAttempts) {
+                            log.error("建模权限重构失败，超过重试次数，modeId：" + task.modeId + "，dataId：" + task.dataId);
+                        } else {
+                            // 等待期间又提交了同一条数据时保留新提交的
+                            pending.putIfAbsent(key(task.modeId, task.dataId), task);
+                        }
+                    }
+                    lock.notifyAll();
+                    if (interrupted) {
+                        activeWorkers--;
+                        exited = true;
+                        return;
+                    }
+                }
+            }
+        } finally {
+            if (!exited) {
+                synchronized (lock) {
+                    inFlight -= taken;
+                    activeWorkers--;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private boolean rebuildSafely(Task task) {
+        task.attempts++;
+        try {
+            rebuilder.rebuild(task);
+            return true;
+        } catch (Throwable e) {
+            // 包括 ModeRightInfo 抛出的 NoClassDefFoundError 等错误，按失败处理，不中断后台线程
+            log.warn("建模权限重构失败，modeId：" + task.modeId + "，dataId：" + task.dataId + "，第 "
+                    + task.attempts + " 次", e);
+            return false;
+        }
+    }
+
+    private static void rebuild(Task task) {
+        ModeRightInfo modeRightInfo = new ModeRightInfo();
+        modeRightInfo.setNewRight(true);
+        modeRightInfo.editModeDataShare(task.userId, task.modeId, task.dataId);
+    }
+
+    private static long key(int modeId, int dataId) {
+        return ((long) modeId << 32) | (dataId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 权限重构的执行方式
+     */
+    @FunctionalInterface
+    interface RightRebuilder {
+        void rebuild(Task task);
+    }
+
+    static final class Task {
+        final int modeId;
+        final int dataId;
+        final int userId;
+        /**
+         * 已执行次数，只由取出它的线程修改
+         */
+        int attempts;
+
+        Task(int modeId, int dataId, int userId) {
+            this.modeId = modeId;
+            this.dataId = dataId;
+            this.userId = userId;
+        }
+    }
+}
@@ -2,14 +2,20 @@ package com.customization.yll.common.mode.util;
 
 import cn.hutool.core.util.StrUtil;
 import com.customization.yll.common.exception.PropNotConfigureException;
+import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.mode.conf.ModeConfig;
 import com.customization.yll.common.util.CacheUtil;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
 import weaver.conn.RecordSet;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * @author 姚礼林
- * @desc 建模统一配置中心配置属性值获取工具类
+ * @desc 建模统一配置中心配置属性值获取工具类，缓存时一个配置id的所有属性一次查询加载为 {@link ModeConfig}，
+ * 整个配置作为一个缓存条目；不使用缓存时只查询需要的属性
  * @date 2025/4/8
  **/
 @UtilityClass
@@ -20,6 +26,53 @@ public class ModeConfigUtil {
      * 默认缓存过期时间
      */
     public static final int DEFAULT_EXPIRE_TEN_MINUTES = 60 * 3;
+    private static final String CONFIG_SQL = "select m.name,m.value from uf_config_center z " +
+            "join uf_config_center_dt1 m on z.id = m.mainid where z.config_id=? order by m.id";
+
+    /**
+     * 获取配置的所有属性，使用缓存，默认缓存过期时间:{@link #DEFAULT_EXPIRE_TEN_MINUTES}
+     * @param configId 配置id
+     * @return 配置，配置不存在时为没有属性的配置
+     */
+    public static ModeConfig getConfig(String configId) {
+        return getConfig(configId, DEFAULT_EXPIRE_TEN_MINUTES);
+    }
+
+    /**
+     * 获取配置的所有属性，使用缓存
+     * @param configId 配置id
+     * @param expireSeconds 缓存过期时间
+     * @return 配置，配置不存在时为没有属性的配置
+     */
+    public static ModeConfig getConfig(String configId, int expireSeconds) {
+        return CacheUtil.getOrLoad(getConfigCacheKey(configId), expireSeconds, () -> loadConfig(configId));
+    }
+
+    /**
+     * 查询配置的所有属性，不使用缓存
+     * @param configId 配置id
+     * @return 配置，配置不存在时为没有属性的配置
+     */
+    public static ModeConfig loadConfig(String configId) {
+        RecordSet recordSet = new RecordSet();
+        if (!recordSet.executeQuery(CONFIG_SQL, configId)) {
+            throw new SqlExecuteException("查询配置失败，配置id：" + configId, CONFIG_SQL);
+        }
+        Map<String, String> values = new LinkedHashMap<>(16);
+        while (recordSet.next()) {
+            // 属性名重复时取第一个
+            values.putIfAbsent(recordSet.getString("name"), recordSet.getString("value"));
+        }
+        return new ModeConfig(configId, values);
+    }
+
+    /**
+     * 清除配置缓存，开启失效广播时其他节点也会清除
+     * @param configId 配置id
+     */
+    public static void invalidateConfig(String configId) {
+        CacheUtil.deleteCache(getConfigCacheKey(configId));
+    }
 
     /**
      * 获取配置中的属性值
@@ -53,7 +106,7 @@ public class ModeConfigUtil {
     }
 
     /**
-     * 获取配置中的属性值，缓存属性值，默认缓存过期时间:{@link #DEFAULT_EXPIRE_TEN_MINUTES}
+     * 获取配置中的属性值，缓存整个配置，默认缓存过期时间:{@link #DEFAULT_EXPIRE_TEN_MINUTES}
      * @param configId 配置id
      * @param propName 属性名
      * @param required 属性值是否必需，如果为true，则属性值必需存在，否则抛出异常
@@ -77,21 +130,34 @@ public class ModeConfigUtil {
     public static String getPropValue(String configId,String propName,boolean required,
                                       boolean cache,int expireSeconds) throws PropNotConfigureException {
         if (cache) {
-            String cacheKey = getCacheKey(configId, propName);
-            Object cacheValue = CacheUtil.getCache(cacheKey);
-            if (cacheValue != null) {
-                return (String) cacheValue;
-            }
-            String value = getPropValue(configId, propName, required);
-            CacheUtil.putCache(cacheKey, value, expireSeconds);
-            return value;
+            return getConfig(configId, expireSeconds).getValue(propName, required);
         }
         return getPropValue(configId, propName, required);
     }
 
 
+    /**
+     * 开启缓存属性值的提前刷新，缓存时间过去指定比例后，读取时直接返回当前缓存值并在后台重新加载，
+     * 读取配置不会因为缓存过期而等待查询。与 {@link com.customization.yll.common.util.PropertiesUtil}
+     * 使用相同的缓存前缀，开启后两者都会生效
+     *
+     * @param ratio 刷新时间比例，大于 0 小于 1，例如 0.8 表示缓存时间过去 80% 后开始刷新
+     */
+    public static void enableRefreshAhead(double ratio) {
+        CacheUtil.enableRefreshAhead(PREFIX_CACHE_KEY, ratio);
+    }
+
+    /**
+     * @deprecated 属性值不再单独缓存，请使用 {@link #getConfigCacheKey(String)} 或 {@link #invalidateConfig(String)}
+     */
+    @Deprecated
     @NotNull
     public static String getCacheKey(String configId, String propName) {
         return PREFIX_CACHE_KEY + configId + ":" + propName;
     }
+
+    @NotNull
+    public static String getConfigCacheKey(String configId) {
+        return PREFIX_CACHE_KEY + configId;
+    }
 }
@@ -1,12 +1,37 @@
 package com.customization.yll.common.util;
 
 import com.cloudstore.api.util.Util_Redis;
+import cn.hutool.core.thread.NamedThreadFactory;
 import com.cloudstore.dev.api.util.Util_DataCache;
+import com.customization.yll.common.cache.CacheCodec;
+import com.customization.yll.common.cache.CacheInvalidationBus;
+import com.customization.yll.common.cache.CacheInvalidationListener;
+import com.customization.yll.common.cache.CacheMetrics;
+import com.customization.yll.common.cache.CacheMetricsSnapshot;
+import com.customization.yll.common.cache.CacheTier;
+import com.customization.yll.common.cache.CacheValueSerializer;
+import com.customization.yll.common.cache.LocalCacheStore;
+import com.customization.yll.common.cache.NearCache;
+import com.customization.yll.common.cache.SweepResult;
 import org.jetbrains.annotations.Nullable;
 import weaver.integration.logging.Logger;
 import weaver.integration.logging.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * @author yaolilin
@@ -16,23 +41,226 @@ import java.io.IOException;
  **/
 public class CacheUtil {
     private static final Logger log = LoggerFactory.getLogger(CacheUtil.class);
+    /**
+     * redis 模式下加载数据的租约时间，单位秒，其他节点最多等待这么久
+     */
+    private static final int LOAD_LEASE_SECONDS = 10;
+    private static final long LOAD_LEASE_WAIT_MILLIS = 50;
+    private static final ConcurrentHashMap<String, CompletableFuture<Object>> LOADING = new ConcurrentHashMap<>();
+    /**
+     * 本地缓存过期条目（以及过期的提前刷新时间）的清理间隔，单位秒
+     */
+    private static final int SWEEP_INTERVAL_SECONDS = 60;
+    private static final CacheMetrics METRICS = new CacheMetrics();
+    private static final LocalCacheStore LOCAL_STORE = new LocalCacheStore(
+            key -> METRICS.recordEviction(key, CacheTier.LOCAL));
+    private static final CacheValueSerializer REDIS_SERIALIZER = new CacheValueSerializer();
+    /**
+     * 是否使用带格式头的编码写入 redis，默认关闭，直接写入原始对象
+     */
+    private static volatile boolean redisCodecEnabled;
+    private static volatile ScheduledExecutorService sweeper;
+    private static final List<CacheInvalidationListener> INVALIDATION_LISTENERS = new CopyOnWriteArrayList<>();
+    @Nullable
+    private static volatile CacheInvalidationBus invalidationBus;
+    /**
+     * 提前刷新的 key 前缀与刷新时间比例
+     */
+    private static final Map<String, Double> REFRESH_AHEAD_RATIOS = new ConcurrentHashMap<>();
+    /**
+     * 开启提前刷新的 key 的下次刷新时间和过期时间，key 过期或读取不到时删除
+     */
+    private static final Map<String, RefreshTime> REFRESH_TIMES = new ConcurrentHashMap<>();
+    private static final Set<String> REFRESHING = ConcurrentHashMap.newKeySet();
+    /**
+     * 提前刷新失败后，间隔此时间再重试，单位毫秒
+     */
+    private static final long REFRESH_RETRY_MILLIS = 5000;
+    private static final ThreadPoolExecutor REFRESH_EXECUTOR = new ThreadPoolExecutor(2, 2, 1, TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(200), new NamedThreadFactory("CacheUtil-refresh", true),
+            new ThreadPoolExecutor.AbortPolicy());
+    @Nullable
+    private static volatile NearCache nearCache;
+
+    static {
+        REFRESH_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
 
     private CacheUtil() {
 
     }
 
+    /**
+     * 开启本地近端缓存（一级缓存），只在使用 redis 时生效。开启后读取缓存时先从本地缓存获取，本地缓存不存在时才访问 redis，
+     * 适合配置值、token 等读多写少的热点 key。只有本节点写入（包括 {@link #getOrLoad(String, int, Supplier)} 加载）的值才会放入本地缓存，
+     * 过期时间不超过写入 redis 时的过期时间；从 redis 读取到的值无法得知剩余过期时间，不放入本地缓存。
+     * 本地缓存保存的是值的引用，开启后请不要修改取出的缓存值
+     *
+     * @param maxEntries     本地缓存最大条目数量
+     * @param maxWeightBytes 本地缓存最大内存占用（估算），单位字节
+     * @param maxTtlSeconds  本地缓存最长存活时间，单位秒，存入缓存时不会超过 redis 中的过期时间
+     */
+    public static void enableNearCache(int maxEntries, long maxWeightBytes, int maxTtlSeconds) {
+        nearCache = new NearCache(maxEntries, maxWeightBytes, maxTtlSeconds,
+                key -> METRICS.recordEviction(key, CacheTier.NEAR));
+        log.info("已开启本地近端缓存，maxEntries:" + maxEntries + "，maxWeightBytes:" + maxWeightBytes
+                + "，maxTtlSeconds:" + maxTtlSeconds);
+    }
+
+    /**
+     * 关闭本地近端缓存
+     */
+    public static void disableNearCache() {
+        nearCache = null;
+    }
+
+    /**
+     * 开启集群缓存失效广播，开启后删除缓存以及 redis 模式下覆盖缓存时会通知其他节点清除本地缓存（本地近端缓存或没有 redis 时的本地缓存），
+     * 其他节点在轮询间隔内生效，因此可以设置更长的缓存时间。需要先创建 {@link CacheInvalidationBus#TABLE_NAME} 表
+     *
+     * @param pollIntervalMillis 轮询间隔，单位毫秒
+     */
+    public static synchronized void enableInvalidationBus(long pollIntervalMillis) {
+        CacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.stop();
+        }
+        bus = new CacheInvalidationBus(CacheUtil::invalidateLocal, pollIntervalMillis);
+        bus.start();
+        invalidationBus = bus;
+    }
+
+    /**
+     * 关闭集群缓存失效广播
+     */
+    public static synchronized void disableInvalidationBus() {
+        CacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.stop();
+            invalidationBus = null;
+        }
+    }
+
+    /**
+     * 添加缓存失效监听，本节点或其他节点（开启失效广播时）删除缓存时触发，
+     * 可用于清除根据缓存生成的本地数据
+     *
+     * @param listener 监听
+     */
+    public static void addInvalidationListener(CacheInvalidationListener listener) {
+        INVALIDATION_LISTENERS.add(listener);
+    }
+
+    /**
+     * 删除指定前缀的本地缓存，开启失效广播时同时通知其他节点。
+     * redis 中的缓存不会按前缀删除，请使用 {@link #deleteCache(String)} 删除具体的 key
+     *
+     * @param prefix 缓存key前缀
+     */
+    public static void deleteLocalCacheByPrefix(String prefix) {
+        invalidateLocal(prefix, true);
+        publishInvalidation(prefix, true);
+    }
+
+    /**
+     * 为指定前缀的 key 开启提前刷新，只对 {@link #getOrLoad(String, int, Supplier)} 生效。
+     * 缓存存入后超过 缓存时间 * ratio 时，下一次读取会直接返回当前缓存值，同时在后台线程异步重新加载，
+     * 调用方不需要等待加载
+     *
+     * @param keyPrefix 缓存key前缀
+     * @param ratio     刷新时间比例，大于 0 小于 1，例如 0.8 表示缓存时间过去 80% 后开始刷新
+     */
+    public static void enableRefreshAhead(String keyPrefix, double ratio) {
+        if (ratio <= 0 || ratio >= 1) {
+            throw new IllegalArgumentException("[ratio] 必需大于 0 小于 1");
+        }
+        REFRESH_AHEAD_RATIOS.put(keyPrefix, ratio);
+    }
+
+    /**
+     * 关闭指定前缀的 key 的提前刷新
+     *
+     * @param keyPrefix 缓存key前缀
+     */
+    public static void disableRefreshAhead(String keyPrefix) {
+        REFRESH_AHEAD_RATIOS.remove(keyPrefix);
+        REFRESH_TIMES.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * 获取缓存统计快照，按 key 前缀分组，每个前缀包含各缓存层级的命中、未命中、写入、淘汰次数，
+     * 以及 {@link #getOrLoad(String, int, Supplier)} 的加载次数和耗时。统计只包含本节点
+     *
+     * @return 各前缀的统计
+     */
+    public static List<CacheMetricsSnapshot> getMetrics() {
+        return METRICS.snapshot();
+    }
+
+    /**
+     * 清空缓存统计
+     */
+    public static void resetMetrics() {
+        METRICS.reset();
+    }
+
+    /**
+     * 开启 redis 缓存值编码，开启后缓存值按 {@link CacheValueSerializer} 的格式（带格式头，可压缩）写入 redis。
+     * 旧版本节点以及直接通过 Util_DataCache 读取的代码无法识别此格式，因此需要所有读取这些 key 的节点都升级后再开启；
+     * 无论是否开启，读取时都能识别两种格式
+     */
+    public static void enableRedisCodec() {
+        redisCodecEnabled = true;
+        log.info("已开启 redis 缓存值编码");
+    }
+
+    /**
+     * 关闭 redis 缓存值编码，之后直接写入原始对象，已编码写入的缓存仍可读取
+     */
+    public static void disableRedisCodec() {
+        redisCodecEnabled = false;
+    }
+
+    /**
+     * 设置 redis 缓存值的编码器，默认使用 java 序列化，字符串固定按 UTF-8 编码，需要先调用 {@link #enableRedisCodec()} 开启。
+     * 设置的编码器同时会注册用于解码，切换编码器前写入的缓存仍可读取
+     *
+     * @param codec 编码器
+     */
+    public static void setCacheCodec(CacheCodec codec) {
+        REDIS_SERIALIZER.setCodec(codec);
+    }
+
+    /**
+     * 注册只用于解码的编码器，其他节点使用了不同编码器时，需要注册后才能读取其写入的缓存
+     *
+     * @param codec 编码器
+     */
+    public static void registerCacheCodec(CacheCodec codec) {
+        REDIS_SERIALIZER.registerCodec(codec);
+    }
+
+    /**
+     * 设置 redis 缓存值的压缩阈值，编码后超过此大小的缓存值会进行压缩，默认
+     * {@link CacheValueSerializer#DEFAULT_COMPRESS_THRESHOLD}
+     *
+     * @param bytes 压缩阈值，单位字节，小于 0 表示不压缩
+     */
+    public static void setCompressThreshold(int bytes) {
+        REDIS_SERIALIZER.setCompressThreshold(bytes);
+    }
+
     /**
      * 删除缓存，优先使用redis，如果没有redis则使用本地缓存
      *
      * @param key 缓存key
      */
     public static void deleteCache(String key) {
+        invalidateLocal(key, false);
         if (isRedis()) {
             Util_DataCache.clearValWithRedis(key);
-        } else {
-            Util_DataCache.clearVal(key);
-            Util_DataCache.clearVal(getCacheTimeKey(key));
         }
+        publishInvalidation(key, false);
     }
 
     /**
@@ -65,15 +293,25 @@ public class CacheUtil {
     private static void putCache(String key, Object value, @Nullable Integer seconds) {
         if (isRedis()) {
             try {
+                Object data = redisCodecEnabled ? REDIS_SERIALIZER.encode(value) : value;
                 if (seconds == null) {
-                    Util_DataCache.setObjValWithRedis(key, value);
+                    Util_DataCache.setObjValWithRedis(key, data);
                 }else {
-                    Util_DataCache.setObjValWithRedis(key, value, seconds);
+                    Util_DataCache.setObjValWithRedis(key, data, seconds);
                 }
+                METRICS.recordPut(key, CacheTier.REDIS);
+                putNearCache(key, value, seconds);
             } catch (IOException e) {
-                log.error("存入缓存失败", e);
-                putLocalCache(key, value, seconds);
+                // redis 模式下读取不会访问本地缓存，因此不再写入本地缓存，同时清除旧值，避免读取到过期的数据
+                log.error("存入缓存失败，已清除旧的缓存值，key:" + key, e);
+                NearCache l1 = nearCache;
+                if (l1 != null) {
+                    l1.invalidate(key);
+                }
+                Util_DataCache.clearValWithRedis(key);
             }
+            // 其他节点的本地近端缓存中可能还是旧值
+            publishInvalidation(key, false);
         } else {
             putLocalCache(key, value, seconds);
         }
@@ -88,19 +326,90 @@ public class CacheUtil {
     @Nullable
     public static Object getCache(String key) {
         if (isRedis()) {
-            return Util_DataCache.getObjValWithRedis(key);
+            return getRedisCache(key);
+        }
+        return getLocalCache(key);
+    }
+
+    /**
+     * 获取缓存，如果缓存不存在则调用 loader 加载数据并存入缓存。同一个 key 同时只会有一个 loader 在执行，
+     * 其他并发的调用会等待该 loader 的结果，避免缓存过期时大量请求同时查询数据库。<br>
+     * 使用 redis 时还会在 redis 中设置一个短期租约，其他节点发现租约存在时会等待缓存写入，而不是同时加载。
+     * 租约通过 Util_DataCache 设置，不是原子操作，极端情况下多个节点可能同时加载，但不会影响结果的正确性
+     *
+     * @param key     缓存key
+     * @param seconds 缓存时间，单位为秒
+     * @param loader  缓存不存在时加载数据，返回 null 时不进行缓存，抛出的异常会传递给所有等待的调用方
+     * @param <T>     缓存值类型
+     * @return 缓存值
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T getOrLoad(String key, int seconds, Supplier<T> loader) {
+        Object value = getCache(key);
+        if (value != null) {
+            refreshAheadIfNecessary(key, seconds, loader);
+            return (T) value;
         }
-        Object cacheValue = Util_DataCache.getObjVal(key);
-        Object cacheTime = Util_DataCache.getObjVal(getCacheTimeKey(key));
-        if (cacheTime == null) {
-            return cacheValue;
+        // 缓存已过期或被删除，加载后重新计算刷新时间
+        REFRESH_TIMES.remove(key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> loading = LOADING.putIfAbsent(key, future);
+        if (loading != null) {
+            return (T) waitLoading(loading);
         }
-        // 获取之前存储的缓存到期时间
-        long cacheExpireTime = Long.parseLong(cacheTime.toString());
-        if (System.currentTimeMillis() > cacheExpireTime) {
-            return null;
+        try {
+            // 可能在获取到加载权之前，其他线程已经加载完成
+            value = getCache(key);
+            if (value == null) {
+                value = loadWithLease(key, seconds, loader, null);
+            }
+            future.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            LOADING.remove(key, future);
+        }
+    }
+
+    /**
+     * 强制重新加载缓存，与 {@link #getOrLoad(String, int, Supplier)} 共用同一个加载过程。
+     * 只有当前缓存值仍然是调用方认为过期的值（或缓存不存在）时才会加载，如果其他线程或节点已经存入了新值，
+     * 直接返回新值，不会删除新值再重复加载。使用 redis 时加载后通知其他节点清除本地近端缓存
+     *
+     * @param key        缓存key
+     * @param seconds    缓存时间，单位为秒
+     * @param staleValue 调用方读取到的过期值，为 null 表示缓存不存在
+     * @param loader     加载数据，返回 null 时不进行缓存
+     * @param <T>        缓存值类型
+     * @return 缓存值
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T reload(String key, int seconds, @Nullable Object staleValue, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> loading = LOADING.putIfAbsent(key, future);
+        if (loading != null) {
+            return (T) waitLoading(loading);
+        }
+        try {
+            Object value = getCache(key);
+            if (value == null || value.equals(staleValue)) {
+                value = loadWithLease(key, seconds, loader, staleValue);
+                if (value != null && isRedis()) {
+                    publishInvalidation(key, false);
+                }
+            }
+            future.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            LOADING.remove(key, future);
         }
-        return cacheValue;
     }
 
     /**
@@ -116,7 +425,11 @@ public class CacheUtil {
     }
 
     public static boolean exist(String key) {
-        return isRedis() ? Util_DataCache.containsKeyWithRedis(key) : Util_DataCache.containsKey(key);
+        NearCache l1 = nearCache;
+        if (l1 != null && l1.get(key) != null) {
+            return true;
+        }
+        return isRedis() ? Util_DataCache.containsKeyWithRedis(key) : LOCAL_STORE.containsKey(key);
     }
 
     /**
@@ -129,27 +442,292 @@ public class CacheUtil {
     }
 
     /**
-     * 获取本地缓存的过期时间，如果没有则返回-1
+     * 获取本地缓存的剩余过期时间，如果没有则返回-1
      * @param key 缓存key
-     * @return 缓存过期时间，单位秒，如果缓存不存在则返回-1
+     * @return 缓存剩余过期时间，单位秒，如果缓存不存在或没有设置过期时间则返回-1
      */
     public static int getLocalCacheExpire(String key) {
-        Object value = Util_DataCache.getObjVal(getCacheTimeKey(key));
+        return LOCAL_STORE.getRemainingSeconds(key);
+    }
+
+    /**
+     * 立即清理本地缓存中已过期的条目，后台也会定时执行清理
+     *
+     * @return 清理结果，包括清理的条目数量和回收的内存（估算）
+     */
+    public static SweepResult sweepLocalCache() {
+        return LOCAL_STORE.sweep();
+    }
+
+    @Nullable
+    private static Object waitLoading(CompletableFuture<Object> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param staleValue 过期的值，等待租约期间读取到此值时继续等待，为 null 时读取到任意值都返回
+     */
+    @Nullable
+    private static Object loadWithLease(String key, int seconds, Supplier<?> loader, @Nullable Object staleValue) {
+        if (!isRedis()) {
+            return loadAndPut(key, seconds, loader);
+        }
+        String leaseKey = getLoadLeaseKey(key);
+        long deadline = System.currentTimeMillis() + LOAD_LEASE_SECONDS * 1000L;
+        while (Util_DataCache.containsKeyWithRedis(leaseKey) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOAD_LEASE_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Object value = getCache(key);
+            if (value != null && !value.equals(staleValue)) {
+                return value;
+            }
+        }
+        try {
+            Util_DataCache.setObjValWithRedis(leaseKey, "1", LOAD_LEASE_SECONDS);
+        } catch (IOException e) {
+            log.warn("设置缓存加载租约失败，key:" + key, e);
+        }
+        try {
+            return loadAndPut(key, seconds, loader);
+        } finally {
+            Util_DataCache.clearValWithRedis(leaseKey);
+        }
+    }
+
+    @Nullable
+    private static Object loadAndPut(String key, int seconds, Supplier<?> loader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            METRICS.recordLoad(key, System.nanoTime() - start, false);
+            throw e;
+        }
+        METRICS.recordLoad(key, System.nanoTime() - start, true);
+        if (value != null) {
+            putCache(key, value, seconds);
+            markRefreshTime(key, seconds);
+        }
+        return value;
+    }
+
+    @Nullable
+    private static Double getRefreshAheadRatio(String key) {
+        if (REFRESH_AHEAD_RATIOS.isEmpty()) {
+            return null;
+        }
+        for (Map.Entry<String, Double> entry : REFRESH_AHEAD_RATIOS.entrySet()) {
+            if (key.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void markRefreshTime(String key, int seconds) {
+        Double ratio = getRefreshAheadRatio(key);
+        if (ratio != null) {
+            REFRESH_TIMES.put(key, new RefreshTime(System.currentTimeMillis(), seconds, ratio));
+            startSweeper();
+        }
+    }
+
+    private static void refreshAheadIfNecessary(String key, int seconds, Supplier<?> loader) {
+        Double ratio = getRefreshAheadRatio(key);
+        if (ratio == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        RefreshTime refreshTime = REFRESH_TIMES.get(key);
+        if (refreshTime == null) {
+            // 缓存由其他节点加载，不知道存入的时间，从现在开始计算
+            REFRESH_TIMES.putIfAbsent(key, new RefreshTime(now, seconds, ratio));
+            startSweeper();
+            return;
+        }
+        if (now < refreshTime.refreshAt || !REFRESHING.add(key)) {
+            return;
+        }
+        try {
+            REFRESH_EXECUTOR.execute(() -> refresh(key, seconds, loader));
+        } catch (RejectedExecutionException e) {
+            REFRESHING.remove(key);
+            log.warn("提前刷新任务队列已满，key:" + key);
+        }
+    }
+
+    private static void refresh(String key, int seconds, Supplier<?> loader) {
+        try {
+            loadAndPut(key, seconds, loader);
+        } catch (RuntimeException e) {
+            REFRESH_TIMES.computeIfPresent(key, (k, refreshTime) -> refreshTime.retryAfter(REFRESH_RETRY_MILLIS));
+            log.error("提前刷新缓存失败，key:" + key, e);
+        } finally {
+            REFRESHING.remove(key);
+        }
+    }
+
+    private static String getLoadLeaseKey(String key) {
+        return key + "_load_lease";
+    }
+
+    @Nullable
+    private static Object getRedisCache(String key) {
+        NearCache l1 = nearCache;
+        if (l1 == null) {
+            return readRedis(key);
+        }
+        Object value = l1.get(key);
+        if (value != null) {
+            METRICS.recordHit(key, CacheTier.NEAR);
+            return value;
+        }
+        METRICS.recordMiss(key, CacheTier.NEAR);
+        // 读取时无法得知 redis 中剩余的过期时间，不放入本地缓存，避免 redis 中过期后本地仍返回旧值
+        return readRedis(key);
+    }
+
+    private static void invalidateLocal(String key, boolean prefix) {
+        NearCache l1 = nearCache;
+        if (prefix) {
+            if (l1 != null) {
+                l1.invalidateByPrefix(key);
+            }
+            LOCAL_STORE.removeByPrefix(key);
+            REFRESH_TIMES.keySet().removeIf(i -> i.startsWith(key));
+        } else {
+            if (l1 != null) {
+                l1.invalidate(key);
+            }
+            LOCAL_STORE.remove(key);
+            REFRESH_TIMES.remove(key);
+        }
+        for (CacheInvalidationListener listener : INVALIDATION_LISTENERS) {
+            try {
+                listener.onInvalidate(key, prefix);
+            } catch (RuntimeException e) {
+                log.error("缓存失效监听执行失败，key:" + key, e);
+            }
+        }
+    }
+
+    private static void publishInvalidation(String key, boolean prefix) {
+        CacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(key, prefix);
+        }
+    }
+
+    @Nullable
+    private static Object readRedis(String key) {
+        Object stored = Util_DataCache.getObjValWithRedis(key);
+        if (stored == null) {
+            METRICS.recordMiss(key, CacheTier.REDIS);
+            return null;
+        }
+        METRICS.recordHit(key, CacheTier.REDIS);
+        try {
+            return REDIS_SERIALIZER.decode(stored);
+        } catch (IOException e) {
+            log.error("缓存值解码失败，key:" + key, e);
+            return null;
+        }
+    }
+
+    private static void putNearCache(String key, Object value, @Nullable Integer seconds) {
+        NearCache l1 = nearCache;
+        if (l1 != null) {
+            l1.put(key, value, seconds);
+            METRICS.recordPut(key, CacheTier.NEAR);
+        }
+    }
+
+    @Nullable
+    private static Object getLocalCache(String key) {
+        Object value = LOCAL_STORE.get(key);
         if (value == null) {
-            return -1;
+            METRICS.recordMiss(key, CacheTier.LOCAL);
+        } else {
+            METRICS.recordHit(key, CacheTier.LOCAL);
         }
-        return Integer.parseInt(value.toString());
+        return value;
     }
 
     private static void putLocalCache(String key, Object value, @Nullable Integer seconds) {
-        Util_DataCache.setObjVal(key, value);
+        LOCAL_STORE.put(key, value, seconds);
+        METRICS.recordPut(key, CacheTier.LOCAL);
         if (seconds != null) {
-            long expireTime = System.currentTimeMillis() + seconds * 1000L;
-            Util_DataCache.setObjVal(getCacheTimeKey(key), expireTime + "");
+            startSweeper();
+        }
+    }
+
+    private static void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        synchronized (CacheUtil.class) {
+            if (sweeper != null) {
+                return;
+            }
+            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(
+                    new NamedThreadFactory("CacheUtil-sweeper", true));
+            service.scheduleWithFixedDelay(CacheUtil::sweepExpired, SWEEP_INTERVAL_SECONDS,
+                    SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            sweeper = service;
+        }
+    }
+
+    private static void sweepExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            REFRESH_TIMES.values().removeIf(refreshTime -> refreshTime.expireAt <= now);
+            SweepResult result = LOCAL_STORE.sweep();
+            if (result.getEntries() > 0) {
+                log.info("本地缓存清理过期条目：" + result.getEntries() + "，回收内存（估算）：" + result.getBytes()
+                        + " 字节，剩余条目：" + LOCAL_STORE.size());
+            }
+        } catch (Exception e) {
+            log.error("本地缓存清理过期条目失败", e);
         }
     }
 
-    private static String getCacheTimeKey(String key) {
-        return key + "_cache_time";
+    private static final class RefreshTime {
+        /**
+         * 下次刷新时间，时间戳（毫秒）
+         */
+        private final long refreshAt;
+        /**
+         * 缓存过期时间，时间戳（毫秒），过期后删除刷新时间
+         */
+        private final long expireAt;
+
+        RefreshTime(long now, int seconds, double ratio) {
+            this(now + (long) (seconds * 1000L * ratio), now + seconds * 1000L);
+        }
+
+        private RefreshTime(long refreshAt, long expireAt) {
+            this.refreshAt = refreshAt;
+            this.expireAt = expireAt;
+        }
+
+        RefreshTime retryAfter(long millis) {
+            return new RefreshTime(System.currentTimeMillis() + millis, expireAt);
+        }
     }
 }
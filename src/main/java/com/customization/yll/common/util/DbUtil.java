@@ -1,18 +1,29 @@
 package com.customization.yll.common.util;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.customization.yll.common.db.RowCursor;
+import com.customization.yll.common.db.RowMapper;
+import com.customization.yll.common.enu.InsertStrategy;
+import com.customization.yll.common.exception.SqlExecuteException;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
 import weaver.conn.RecordSetExecutionInterface;
+import weaver.conn.RecordSetTrans;
 import weaver.integration.logging.Logger;
 import weaver.integration.logging.LoggerFactory;
 
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * @author 姚礼林
@@ -22,6 +33,22 @@ import java.util.Map;
 @UtilityClass
 public class DbUtil {
     private static final Logger logger = LoggerFactory.getLogger(DbUtil.class);
+    /**
+     * 批量插入默认每批行数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    /**
+     * 多行插入时每条语句最多的参数数量
+     */
+    public static final int MULTI_ROW_MAX_PARAMS = 10000;
+    /**
+     * 多行插入时每条语句估算的参数最大字节数，低于 mysql max_allowed_packet 默认值
+     */
+    public static final long MULTI_ROW_MAX_BYTES = 1024 * 1024;
+    /**
+     * 流式查询默认每次预取的行数
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
 
     /**
      * 插入数据
@@ -134,7 +161,8 @@ public class DbUtil {
     }
 
     /**
-     * 批量插入数据到指定表中，可用于执行事务
+     * 批量插入数据到指定表中，可用于执行事务，所有数据作为一个批次执行。
+     * 需要分批提交时使用 {@link #batchInsert(Iterator, String, int, RecordSetExecutionInterface)}
      *
      * @param data      要插入的数据列表，每个元素是一个Map，key为字段名，value为字段值
      * @param tableName 目标表名，不能为空
@@ -168,6 +196,295 @@ public class DbUtil {
         return results != null && results.length > 0;
     }
 
+    /**
+     * 流式分批插入数据，每次只从迭代器读取一批数据执行，内存占用与数据总量无关，适合导入大量数据。
+     * 字段以第一行为准，每批复用同一组参数列表。<br>
+     * 传入非事务的 RecordSet 或 null 时每批执行后即提交；传入关闭自动提交的 RecordSetTrans 时所有批次在同一事务中，
+     * 由调用方提交或回滚
+     *
+     * @param rows      要插入的数据，key为字段名，value为字段值，所有行的字段必需相同
+     * @param tableName 目标表名，不能为空
+     * @param batchSize 每批行数，必需大于 0
+     * @param recordSet 批量插入的RecordSet对象，如果为null，则创建一个新的RecordSet对象
+     * @return 每批插入的行数，按批次顺序
+     * @throws SqlExecuteException      某一批执行失败，之前的批次不会回滚（除非在事务中）
+     * @throws IllegalArgumentException 某一行的字段与第一行不一致
+     * @throws Exception                数据库执行发生异常
+     */
+    public static int[] batchInsert(Iterator<Map<String, Object>> rows, @NotNull String tableName, int batchSize,
+                                    @Nullable RecordSetExecutionInterface recordSet) throws Exception {
+        return batchInsert(rows, tableName, batchSize, InsertStrategy.PER_ROW, recordSet);
+    }
+
+    /**
+     * 流式分批插入数据，可以指定插入方式，分批方式与提交方式同
+     * {@link #batchInsert(Iterator, String, int, RecordSetExecutionInterface)}。<br>
+     * 使用 {@link InsertStrategy#MULTI_ROW} 时，每批数据合并为多行插入语句执行，每条语句的参数不超过
+     * {@link #MULTI_ROW_MAX_PARAMS} 个，估算的参数大小不超过 {@link #MULTI_ROW_MAX_BYTES} 字节，超过时拆分为多条语句；
+     * 数据库不支持多行插入时（oracle、sqlserver 等）使用逐行批量插入
+     *
+     * @param rows      要插入的数据，key为字段名，value为字段值，所有行的字段必需相同
+     * @param tableName 目标表名，不能为空
+     * @param batchSize 每批行数，必需大于 0
+     * @param strategy  插入方式
+     * @param recordSet 批量插入的RecordSet对象，如果为null，则创建一个新的RecordSet对象
+     * @return 每批插入的行数，按批次顺序
+     * @throws SqlExecuteException      某一批执行失败，之前的批次不会回滚（除非在事务中）
+     * @throws IllegalArgumentException 某一行的字段与第一行不一致，或多行插入时无法确定数据库类型
+     * @throws Exception                数据库执行发生异常
+     */
+    public static int[] batchInsert(Iterator<Map<String, Object>> rows, @NotNull String tableName, int batchSize,
+                                    InsertStrategy strategy,
+                                    @Nullable RecordSetExecutionInterface recordSet) throws Exception {
+        if (strategy == InsertStrategy.MULTI_ROW && SqlUtil.isMultiRowInsertSupported(getDbType(recordSet))) {
+            return executeInChunks(rows, batchSize, recordSet, columns -> {
+                logger.info("sql:" + SqlUtil.buildInsertSql(tableName, columns) + "，多行插入");
+                List<Object> params = new ArrayList<>();
+                return (buffer, chunkIndex, rs) -> executeMultiRowChunk(tableName, buffer, chunkIndex, rs, params);
+            }, "批量插入", tableName);
+        }
+        return executeInChunks(rows, batchSize, recordSet,
+                columns -> perRowExecutor(SqlUtil.buildInsertSql(tableName, columns)), "批量插入", tableName);
+    }
+
+    /**
+     * 批量插入或更新数据，按主键字段判断记录是否存在，存在则更新其他字段，不存在则插入，
+     * 一次执行完成，不需要先查询再决定插入还是更新
+     *
+     * @param rows       要插入或更新的数据，key为字段名，value为字段值，所有行的字段必需相同
+     * @param tableName  目标表名，不能为空
+     * @param keyColumns 判断记录是否存在的主键字段，mysql、postgresql 要求这些字段上有主键或唯一索引
+     * @param batchSize  每批行数，必需大于 0
+     * @return 成功返回true，失败返回false
+     * @see SqlUtil#buildUpsertSql(String, String, List, List)
+     */
+    public static boolean batchUpsert(List<Map<String, Object>> rows, @NotNull String tableName,
+                                      List<String> keyColumns, int batchSize) {
+        try {
+            batchUpsert(rows.iterator(), tableName, keyColumns, batchSize, null);
+            return true;
+        } catch (Exception e) {
+            logger.error("批量插入或更新数据发生异常", e);
+            return false;
+        }
+    }
+
+    /**
+     * 流式分批插入或更新数据，可用于执行事务，分批方式与提交方式同
+     * {@link #batchInsert(Iterator, String, int, RecordSetExecutionInterface)}，
+     * 按 RecordSet 的数据库类型生成 merge / on duplicate key update / on conflict 语句
+     *
+     * @param rows       要插入或更新的数据，key为字段名，value为字段值，所有行的字段必需相同
+     * @param tableName  目标表名，不能为空
+     * @param keyColumns 判断记录是否存在的主键字段，必需包含在数据字段中
+     * @param batchSize  每批行数，必需大于 0
+     * @param recordSet  执行的RecordSet对象，如果为null，则创建一个新的RecordSet对象
+     * @return 每批影响的行数，按批次顺序，由数据库返回，如 mysql 中更新的行计为 2
+     * @throws SqlExecuteException      某一批执行失败
+     * @throws IllegalArgumentException 主键字段不正确、数据库类型不支持或某一行的字段与第一行不一致
+     * @throws Exception                数据库执行发生异常
+     */
+    public static int[] batchUpsert(Iterator<Map<String, Object>> rows, @NotNull String tableName,
+                                    List<String> keyColumns, int batchSize,
+                                    @Nullable RecordSetExecutionInterface recordSet) throws Exception {
+        String dbType = getDbType(recordSet);
+        return executeInChunks(rows, batchSize, recordSet,
+                columns -> perRowExecutor(SqlUtil.buildUpsertSql(dbType, tableName, columns, keyColumns)),
+                "批量插入或更新", tableName);
+    }
+
+    /**
+     * 流式查询，逐行读取并转换，内存占用与结果数量无关，适合处理大量数据，每次预取 {@link #DEFAULT_FETCH_SIZE} 行。
+     * 返回的流占用一个数据库连接，必需在 try-with-resources 中使用
+     *
+     * @param sql       查询sql，参数使用?占位符
+     * @param params    参数
+     * @param rowMapper 行映射，传入的行对象所有行共用，不能在映射方法外保存
+     * @return 转换后的对象流
+     * @throws SqlExecuteException 执行查询失败
+     * @see RowCursor
+     */
+    public static <T> Stream<T> stream(String sql, List<?> params, RowMapper<T> rowMapper) {
+        return stream(sql, params, DEFAULT_FETCH_SIZE, rowMapper);
+    }
+
+    /**
+     * 流式查询，可以指定每次预取的行数
+     *
+     * @param sql       查询sql，参数使用?占位符
+     * @param params    参数
+     * @param fetchSize 每次从数据库预取的行数
+     * @param rowMapper 行映射
+     * @return 转换后的对象流，必需关闭
+     * @throws SqlExecuteException 执行查询失败
+     */
+    public static <T> Stream<T> stream(String sql, List<?> params, int fetchSize, RowMapper<T> rowMapper) {
+        return openCursor(sql, params, fetchSize, rowMapper).stream();
+    }
+
+    /**
+     * 打开查询游标，按迭代器方式逐行读取
+     *
+     * @param sql       查询sql，参数使用?占位符
+     * @param params    参数
+     * @param fetchSize 每次从数据库预取的行数
+     * @param rowMapper 行映射
+     * @return 游标，必需关闭
+     * @throws SqlExecuteException 执行查询失败
+     */
+    public static <T> RowCursor<T> openCursor(String sql, List<?> params, int fetchSize, RowMapper<T> rowMapper) {
+        logger.info("sql:" + sql);
+        return RowCursor.open(sql, params, fetchSize, rowMapper);
+    }
+
+    /**
+     * 从迭代器中按批读取数据执行
+     *
+     * @param executorFactory 根据字段（第一行的字段）创建每批的执行方式
+     * @return 每批影响的行数
+     */
+    private static int[] executeInChunks(Iterator<Map<String, Object>> rows, int batchSize,
+                                         @Nullable RecordSetExecutionInterface recordSet,
+                                         Function<List<String>, ChunkExecutor> executorFactory, String operation,
+                                         String tableName) throws Exception {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("[batchSize] 必需大于 0");
+        }
+        if (!rows.hasNext()) {
+            logger.info("无数据，不进行操作");
+            return new int[0];
+        }
+        if (recordSet == null) {
+            recordSet = new RecordSet();
+        }
+        Map<String, Object> first = rows.next();
+        BatchBuffer buffer = new BatchBuffer(new ArrayList<>(first.keySet()), batchSize);
+        ChunkExecutor executor = executorFactory.apply(buffer.columns);
+        buffer.add(first);
+        int[] chunkCounts = new int[16];
+        int chunks = 0;
+        while (true) {
+            boolean hasNext = rows.hasNext();
+            if (buffer.isFull() || (!hasNext && buffer.size > 0)) {
+                if (chunks == chunkCounts.length) {
+                    chunkCounts = Arrays.copyOf(chunkCounts, chunks * 2);
+                }
+                chunkCounts[chunks] = executor.execute(buffer, chunks, recordSet);
+                chunks++;
+                buffer.clear();
+            }
+            if (!hasNext) {
+                break;
+            }
+            buffer.add(rows.next());
+        }
+        logger.info(operation + "完成，批次数：" + chunks + "，表名：" + tableName);
+        return Arrays.copyOf(chunkCounts, chunks);
+    }
+
+    private static ChunkExecutor perRowExecutor(String sql) {
+        logger.info("sql:" + sql);
+        return (buffer, chunkIndex, recordSet) -> {
+            int[] results = recordSet.executeBatchSql_proxy(sql, buffer.rows(), "");
+            if (results == null) {
+                throw new SqlExecuteException("批量执行sql失败，第 " + (chunkIndex + 1) + " 批，sql: " + sql, sql);
+            }
+            logger.debug("第 " + (chunkIndex + 1) + " 批执行结果：" + Arrays.toString(results));
+            return countResults(results, 1);
+        };
+    }
+
+    /**
+     * 将一批数据合并为多行插入语句执行，按参数数量和估算大小拆分为多条语句
+     *
+     * @param params 复用的参数列表
+     */
+    private static int executeMultiRowChunk(String tableName, BatchBuffer buffer, int chunkIndex,
+                                            RecordSetExecutionInterface recordSet,
+                                            List<Object> params) throws Exception {
+        List<List<Object>> rows = buffer.rows();
+        int maxRows = Math.max(1, MULTI_ROW_MAX_PARAMS / buffer.columns.size());
+        int count = 0;
+        int start = 0;
+        while (start < rows.size()) {
+            params.clear();
+            long bytes = 0;
+            int end = start;
+            while (end < rows.size() && end - start < maxRows) {
+                long rowBytes = estimateBytes(rows.get(end));
+                if (end > start && bytes + rowBytes > MULTI_ROW_MAX_BYTES) {
+                    break;
+                }
+                params.addAll(rows.get(end));
+                bytes += rowBytes;
+                end++;
+            }
+            String sql = SqlUtil.buildMultiRowInsertSql(tableName, buffer.columns, end - start);
+            int[] results = recordSet.executeBatchSql_proxy(sql, Collections.singletonList(params), "");
+            if (results == null) {
+                throw new SqlExecuteException("多行插入sql执行失败，第 " + (chunkIndex + 1) + " 批，行数：" + (end - start)
+                        + "，表名：" + tableName, sql);
+            }
+            count += countResults(results, end - start);
+            start = end;
+        }
+        return count;
+    }
+
+    /**
+     * 统计影响行数
+     *
+     * @param rowsPerStatement 每条语句插入的行数，驱动不返回影响行数时按此计数
+     */
+    private static int countResults(int[] results, int rowsPerStatement) {
+        int count = 0;
+        for (int result : results) {
+            if (result >= 0) {
+                count += result;
+            } else if (result == Statement.SUCCESS_NO_INFO) {
+                count += rowsPerStatement;
+            }
+        }
+        return count;
+    }
+
+    private static long estimateBytes(List<Object> values) {
+        long bytes = 0;
+        for (Object value : values) {
+            if (value instanceof CharSequence) {
+                // 按 utf-8 中文最多 3 个字节估算
+                bytes += ((CharSequence) value).length() * 3L;
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length;
+            } else {
+                bytes += 16;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 获取执行 sql 的 RecordSet 所连接的数据库类型，事务中使用 RecordSetTrans 自身的数据源
+     *
+     * @throws IllegalArgumentException 无法确定数据库类型
+     */
+    private static String getDbType(@Nullable RecordSetExecutionInterface recordSet) {
+        String dbType;
+        if (recordSet == null) {
+            dbType = new RecordSet().getDBType();
+        } else if (recordSet instanceof RecordSet) {
+            dbType = ((RecordSet) recordSet).getDBType();
+        } else if (recordSet instanceof RecordSetTrans) {
+            dbType = ((RecordSetTrans) recordSet).getDBType();
+        } else {
+            throw new IllegalArgumentException("无法确定数据库类型，不支持的RecordSet：" + recordSet.getClass().getName());
+        }
+        if (StrUtil.isBlank(dbType)) {
+            throw new IllegalArgumentException("无法确定数据库类型，RecordSet 返回的数据库类型为空");
+        }
+        return dbType;
+    }
+
     @NotNull
     private static String buildUpdateSql(Map<String, Object> data, Map<String, Object> conditions,
                                          String tableName, List<Object> values) {
@@ -176,4 +493,68 @@ public class DbUtil {
         sql += whereSql;
         return sql;
     }
+
+    /**
+     * 一批数据的参数列表，清空后下一批复用同一组列表，不再为每行创建新列表
+     */
+    private static final class BatchBuffer {
+        private final List<String> columns;
+        private final List<List<Object>> rows;
+        private final int capacity;
+        private int size;
+
+        BatchBuffer(List<String> columns, int capacity) {
+            this.columns = columns;
+            this.capacity = capacity;
+            this.rows = new ArrayList<>(Math.min(capacity, 1024));
+        }
+
+        void add(Map<String, Object> row) {
+            if (row.size() != columns.size()) {
+                throw new IllegalArgumentException("数据字段与第一行不一致，第一行字段：" + columns + "，当前行字段："
+                        + row.keySet());
+            }
+            List<Object> values;
+            if (size < rows.size()) {
+                values = rows.get(size);
+            } else {
+                values = new ArrayList<>(Collections.nCopies(columns.size(), null));
+                rows.add(values);
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                String column = columns.get(i);
+                Object value = row.get(column);
+                if (value == null && !row.containsKey(column)) {
+                    throw new IllegalArgumentException("数据缺少字段：" + column + "，当前行字段：" + row.keySet());
+                }
+                values.set(i, value);
+            }
+            size++;
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        List<List<Object>> rows() {
+            return size == rows.size() ? rows : rows.subList(0, size);
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * 一批数据的执行方式
+     */
+    @FunctionalInterface
+    private interface ChunkExecutor {
+        /**
+         * 执行一批数据
+         *
+         * @return 影响的行数
+         */
+        int execute(BatchBuffer buffer, int chunkIndex, RecordSetExecutionInterface recordSet) throws Exception;
+    }
 }
@@ -4,7 +4,14 @@ import cn.hutool.core.util.StrUtil;
 import com.customization.yll.common.exception.SqlExecuteException;
 import com.customization.yll.common.IntegrationLog;
 import com.customization.yll.common.constants.FieldType;
+import com.customization.yll.common.workflow.metadata.FormFieldMeta;
+import com.customization.yll.common.workflow.metadata.FormMeta;
+import com.customization.yll.common.workflow.metadata.SelectItemDictionaryCache;
+import com.customization.yll.common.workflow.metadata.WorkflowMeta;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataRegistry;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataSnapshot;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
 
 import java.util.ArrayList;
@@ -27,12 +34,19 @@ public class FieldUtil {
      * @return 字段类型，如果找不到字段类型则返回 Optional.empty()。
      */
     public static Optional<FieldType> getFieldType(int fieldId, RecordSet recordSet) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormFieldMeta field = metadata == null ? null : metadata.getField(fieldId);
+        if (field != null) {
+            return toFieldType(field.getFieldHtmlType(), field.getSelectItemType(), field.getType());
+        }
         recordSet.executeQuery("select fieldhtmltype,selectitemtype,type from workflow_billfield " +
                 "where id=?", fieldId);
         recordSet.next();
-        String htmlType = recordSet.getString("fieldhtmltype");
-        String selectItemType = recordSet.getString("selectitemtype");
-        String type = recordSet.getString("type");
+        return toFieldType(recordSet.getString("fieldhtmltype"), recordSet.getString("selectitemtype"),
+                recordSet.getString("type"));
+    }
+
+    private static Optional<FieldType> toFieldType(String htmlType, String selectItemType, String type) {
         if ("5".equals(htmlType)) {
             // 选择框类型
             if ("1".equals(selectItemType)) {
@@ -69,6 +83,10 @@ public class FieldUtil {
      * @return 字段id，如果获取不到会返回 -1
      */
     public static int getFieldId(String fieldName,int formId, String detailTableName,RecordSet recordSet) {
+        FormFieldMeta field = getFormFieldMeta(formId, detailTableName, fieldName);
+        if (field != null) {
+            return field.getId();
+        }
         if (StrUtil.isNotEmpty(detailTableName)) {
             recordSet.executeQuery("select id from workflow_billfield where fieldname=? and billid=? and " +
                             "detailtable=?", fieldName, formId,detailTableName);
@@ -103,6 +121,12 @@ public class FieldUtil {
      */
     public static String getSelectItemShowName(String tableName, String detailTableName,String fieldName,
                                                int selectValue, RecordSet recordSet){
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormMeta form = metadata == null ? null : metadata.getFormByTableName(tableName);
+        FormFieldMeta field = form == null ? null : form.getField(detailTableName, fieldName);
+        if (field != null) {
+            return getSelectItemShowName(field.getId(), selectValue, recordSet);
+        }
         if (StrUtil.isNotEmpty(detailTableName)) {
             recordSet.executeQuery("SELECT s.SELECTNAME FROM workflow_selectitem s,workflow_bill b,workflow_billfield f " +
                     "WHERE s.SELECTVALUE=? AND s.fieldid=f.id AND f.detailtable=? AND f.fieldname=? " +
@@ -125,6 +149,11 @@ public class FieldUtil {
      * @return 下拉框字段的选项显示名称
      */
     public static String getSelectItemShowName(int fieldId, int selectValue, RecordSet recordSet){
+        SelectItemDictionaryCache cache = SelectItemDictionaryCache.getInstance();
+        if (cache.isEnabled()) {
+            String name = cache.getOwnSelector(fieldId, recordSet).get(selectValue);
+            return name == null ? "" : name;
+        }
         recordSet.executeQuery("SELECT s.SELECTNAME from workflow_selectitem s WHERE s.SELECTVALUE=? AND s.fieldid=? "
                 ,selectValue,fieldId);
         recordSet.next();
@@ -139,6 +168,15 @@ public class FieldUtil {
      * @return 公共选择框的选项显示名称
      */
     public static String getPublicSelectorShowName(int fieldId, int selectValue, RecordSet recordSet) {
+        SelectItemDictionaryCache cache = SelectItemDictionaryCache.getInstance();
+        if (cache.isEnabled()) {
+            String name = cache.getPublicSelector(fieldId, recordSet).get(selectValue);
+            if (name == null) {
+                log.error("匹配不到公共选择框的选项，fieldId："+fieldId);
+                return "";
+            }
+            return name;
+        }
         recordSet.executeQuery("select pubchoiceid from workflow_billfield where id=?", fieldId);
         recordSet.next();
         String selectorId = recordSet.getString("pubchoiceid");
@@ -159,6 +197,35 @@ public class FieldUtil {
         return "";
     }
 
+    /**
+     * 批量获取选择框字段的选项显示名称，根据字段是否为公共选择框自动选择选项来源，
+     * 每个字段的选项只查询一次，开启 {@link SelectItemDictionaryCache} 后使用缓存
+     * @param fieldId 字段id，对应 workflow_billfield 表的id
+     * @param selectValues 选项值
+     * @return 显示名称，与传入的选项值一一对应，匹配不到的选项为空字符串
+     */
+    public static String[] resolveShowNames(int fieldId, int[] selectValues) {
+        return SelectItemDictionaryCache.getInstance().get(fieldId, new RecordSet()).resolve(selectValues);
+    }
+
+    /**
+     * 获取选择框字段值的显示名称，多选的值用英文逗号分隔
+     * @param fieldId 字段id，对应 workflow_billfield 表的id
+     * @param fieldValue 字段值，例如 "0,2"
+     * @return 显示名称，多个用英文逗号分隔
+     */
+    public static String resolveShowNames(int fieldId, String fieldValue) {
+        if (StrUtil.isEmpty(fieldValue)) {
+            return "";
+        }
+        String[] items = fieldValue.split(",");
+        int[] selectValues = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            selectValues[i] = Integer.parseInt(items[i].trim());
+        }
+        return String.join(",", resolveShowNames(fieldId, selectValues));
+    }
+
     /**
      * 获取字段的显示名称
      *
@@ -171,6 +238,14 @@ public class FieldUtil {
         if (fieldId < 1) {
             return "";
         }
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        if (metadata != null) {
+            WorkflowMeta workflow = metadata.getWorkflow(workflowId);
+            FormFieldMeta field = metadata.getField(fieldId);
+            if (workflow != null && workflow.isBill() && field != null && field.getBillId() == workflow.getFormId()) {
+                return field.getFieldName();
+            }
+        }
         recordSet.executeQuery("SELECT a.fieldname FROM workflow_billfield a INNER JOIN workflow_base b " +
                 "ON a.billid=b.formid WHERE b.id=? AND b.isbill='1' AND a.id=?", workflowId, fieldId);
         recordSet.next();
@@ -189,6 +264,14 @@ public class FieldUtil {
         if (detailTableName == null) {
             detailTableName = "";
         }
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        WorkflowMeta workflow = metadata == null ? null : metadata.getWorkflow(workflowId);
+        if (workflow != null && workflow.isBill()) {
+            FormFieldMeta field = getFormFieldMeta(workflow.getFormId(), detailTableName, fieldDbName);
+            if (field != null) {
+                return field.getLabelName();
+            }
+        }
         String sql = "SELECT h.labelname FROM workflow_billfield a "
                 + "INNER JOIN workflow_base b ON a.billid=b.formid JOIN htmllabelinfo h ON a.fieldlabel=h.indexid "
                 + "AND h.languageid=7 WHERE b.id=? AND b.isbill='1' AND a.fieldname=? AND a.detailtable=?";
@@ -213,6 +296,10 @@ public class FieldUtil {
         if (detailTableName == null) {
             detailTableName = "";
         }
+        FormFieldMeta field = getFormFieldMeta(formId, detailTableName, fieldDbName);
+        if (field != null) {
+            return field.getLabelName();
+        }
         String sql = "SELECT h.labelname FROM workflow_billfield a "
                 + "JOIN htmllabelinfo h ON a.fieldlabel=h.indexid AND h.languageid=7 "
                 + "WHERE a.billid=? AND a.fieldname=? ";
@@ -234,4 +321,14 @@ public class FieldUtil {
         recordSet.next();
         return recordSet.getString("labelname");
     }
+
+    /**
+     * 从流程表单元数据注册表获取字段，未开启注册表或找不到时返回 null
+     */
+    @Nullable
+    private static FormFieldMeta getFormFieldMeta(int formId, @Nullable String detailTableName, String fieldName) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormMeta form = metadata == null ? null : metadata.getForm(formId);
+        return form == null ? null : form.getField(detailTableName, fieldName);
+    }
 }
@@ -3,6 +3,9 @@ package com.customization.yll.common.util;
 import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.StrUtil;
 import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.workflow.metadata.FormMeta;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataRegistry;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataSnapshot;
 import weaver.conn.RecordSet;
 
 import java.util.Arrays;
@@ -48,6 +51,11 @@ public class FormUtil {
      * @return 表单表名称
      */
     public static String getFormTableName(int billId, RecordSet recordSet) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormMeta form = metadata == null ? null : metadata.getForm(billId);
+        if (form != null) {
+            return form.getTableName();
+        }
         recordSet.executeQuery("select tablename from workflow_bill where id=?", billId);
         recordSet.next();
         return recordSet.getString("tablename");
@@ -64,6 +72,11 @@ public class FormUtil {
         if (StrUtil.isBlank(tableName)) {
             return Optional.empty();
         }
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormMeta form = metadata == null ? null : metadata.getFormByTableName(tableName);
+        if (form != null) {
+            return Optional.of(form.getId());
+        }
         String sql = "select id from workflow_bill where tablename = ?";
         if (!recordSet.executeQuery(sql, tableName)) {
             throw new SqlExecuteException(buildSqlMessage(sql, tableName), sql);
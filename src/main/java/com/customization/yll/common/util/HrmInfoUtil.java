@@ -2,12 +2,19 @@ package com.customization.yll.common.util;
 
 import cn.hutool.core.convert.Convert;
 import com.customization.yll.common.enu.LanguageType;
+import com.customization.yll.common.hrm.directory.HrmDepartment;
+import com.customization.yll.common.hrm.directory.HrmDirectoryRegistry;
+import com.customization.yll.common.hrm.directory.HrmDirectorySnapshot;
+import com.customization.yll.common.hrm.directory.HrmSubCompany;
+import com.customization.yll.common.hrm.directory.HrmUser;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
 
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 人力资源工具类
@@ -18,12 +25,21 @@ import java.util.Optional;
 public class HrmInfoUtil {
 
     public static String getWorkCode(Integer userId, RecordSet recordSet) {
+        HrmUser user = userId == null ? null : getUser(userId);
+        if (user != null) {
+            return user.getWorkCode();
+        }
         recordSet.executeQuery("select workcode from hrmresource where id =?", userId);
         recordSet.next();
         return recordSet.getString("workcode");
     }
 
     public Optional<Integer> getUserIdByWorkCode(String workCode, RecordSet recordSet) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        HrmUser user = directory == null || workCode == null ? null : directory.getUserByWorkCode(workCode);
+        if (user != null) {
+            return Optional.of(user.getId());
+        }
         recordSet.executeQuery("select id from hrmresource where workcode=?", workCode);
         if (!recordSet.next()) {
             return Optional.empty();
@@ -47,6 +63,10 @@ public class HrmInfoUtil {
         if (userId == null) {
             return "";
         }
+        HrmUser user = getUser(userId);
+        if (user != null) {
+            return user.getLastName();
+        }
         recordSet.executeQuery("select lastname from hrmresource where id =?", userId);
         recordSet.next();
         return recordSet.getString("lastname");
@@ -69,12 +89,19 @@ public class HrmInfoUtil {
      */
     @NotNull
     public String getFullDepartmentPath(int departmentId, String splitPatten, RecordSet recordSet) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        String fullPath = directory == null ? null
+                : directory.getDepartmentTree().getFullPath(departmentId, splitPatten);
+        if (fullPath != null) {
+            return fullPath;
+        }
         StringBuilder path = new StringBuilder(getDepartmentName(departmentId, recordSet));
         if (path.length() == 0) {
             return "";
         }
         Integer parentId = getParentDepartmentId(departmentId, recordSet);
-        while (parentId != null) {
+        // 上级部门id为 0 表示已经是顶级部门
+        while (parentId != null && parentId != 0) {
             String parentDepName = getDepartmentName(parentId, recordSet);
             path.insert(0, parentDepName + splitPatten);
             parentId = getParentDepartmentId(parentId, recordSet);
@@ -86,7 +113,36 @@ public class HrmInfoUtil {
         return path.toString();
     }
 
+    /**
+     * 判断部门是否为另一个部门的下级部门（包括间接下级），部门本身不算自己的下级
+     *
+     * @param departmentId       部门id
+     * @param parentDepartmentId 上级部门id
+     * @param recordSet          RecordSet
+     * @return 是否为下级部门
+     */
+    public boolean isSubDepartment(int departmentId, int parentDepartmentId, RecordSet recordSet) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        if (directory != null && directory.getDepartmentTree().contains(departmentId)) {
+            return directory.getDepartmentTree().isDescendantOf(departmentId, parentDepartmentId);
+        }
+        Set<Integer> visited = new HashSet<>();
+        Integer parentId = getParentDepartmentId(departmentId, recordSet);
+        // 上级部门数据成环时避免死循环
+        while (parentId != null && parentId != 0 && visited.add(parentId)) {
+            if (parentId == parentDepartmentId) {
+                return true;
+            }
+            parentId = getParentDepartmentId(parentId, recordSet);
+        }
+        return false;
+    }
+
     public static String getDepartmentName(int departmentId, RecordSet recordSet) {
+        HrmDepartment department = getDepartment(departmentId);
+        if (department != null) {
+            return department.getName();
+        }
         recordSet.executeQuery("select departmentname from hrmdepartment where id=?", departmentId);
         recordSet.next();
         return recordSet.getString("departmentname");
@@ -97,10 +153,14 @@ public class HrmInfoUtil {
      *
      * @param departmentId 部门id
      * @param recordSet    RecordSet
-     * @return 上级部门id, 如果获取不到则返回 null
+     * @return 上级部门id，顶级部门返回 0，如果获取不到则返回 null
      */
     @Nullable
     public Integer getParentDepartmentId(int departmentId, RecordSet recordSet) {
+        HrmDepartment department = getDepartment(departmentId);
+        if (department != null) {
+            return department.getParentId();
+        }
         String sql = "SELECT supdepid FROM hrmdepartment WHERE id=?";
         recordSet.executeQuery(sql, departmentId);
         recordSet.next();
@@ -108,12 +168,21 @@ public class HrmInfoUtil {
     }
 
     public static String getSubCompanyName(int subCompanyId, RecordSet recordSet) {
+        HrmSubCompany subCompany = getSubCompany(subCompanyId);
+        if (subCompany != null) {
+            return subCompany.getName();
+        }
         recordSet.executeQuery("select subcompanyname from hrmsubcompany where id=?", subCompanyId);
         recordSet.next();
         return recordSet.getString("subcompanyname");
     }
 
     public static String getUserDepartmentName(int userId, RecordSet recordSet) {
+        HrmUser user = getUser(userId);
+        HrmDepartment department = user == null ? null : getDepartment(user.getDepartmentId());
+        if (department != null) {
+            return department.getName();
+        }
         recordSet.executeQuery("select d.departmentname from hrmresource r,hrmdepartment d " +
                 "where r.id=? and r.departmentid=d.id", userId);
         recordSet.next();
@@ -129,6 +198,10 @@ public class HrmInfoUtil {
      */
     @Nullable
     public static Integer getUserDepartmentId(int userId, RecordSet recordSet) {
+        HrmUser user = getUser(userId);
+        if (user != null && getDepartment(user.getDepartmentId()) != null) {
+            return user.getDepartmentId();
+        }
         recordSet.executeQuery("select d.id from hrmresource r,hrmdepartment d " +
                 "where r.id=? and r.departmentid=d.id", userId);
         recordSet.next();
@@ -136,6 +209,11 @@ public class HrmInfoUtil {
     }
 
     public static String getUserSubCompanyName(int userId, RecordSet recordSet) {
+        HrmUser user = getUser(userId);
+        HrmSubCompany subCompany = user == null ? null : getSubCompany(user.getSubCompanyId());
+        if (subCompany != null) {
+            return subCompany.getName();
+        }
         recordSet.executeQuery("select c.subcompanyname from hrmresource r,hrmsubcompany c " +
                 "where r.id=? and r.subcompanyid1=c.id", userId);
         recordSet.next();
@@ -143,14 +221,43 @@ public class HrmInfoUtil {
     }
 
     public static String getPhoneNumber(int userId, RecordSet recordSet) {
+        HrmUser user = getUser(userId);
+        if (user != null) {
+            return user.getMobile();
+        }
         recordSet.executeQuery("select mobile from hrmresource where id=?", userId);
         recordSet.next();
         return recordSet.getString("mobile");
     }
 
     public static String getLoginId(int userId, RecordSet recordSet) {
+        HrmUser user = getUser(userId);
+        if (user != null) {
+            return user.getLoginId();
+        }
         recordSet.executeQuery("select loginid from hrmresource where id=?", userId);
         recordSet.next();
         return recordSet.getString("loginid");
     }
+
+    /**
+     * 从人力资源目录注册表获取人员，未开启注册表或找不到时返回 null
+     */
+    @Nullable
+    private static HrmUser getUser(int userId) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        return directory == null ? null : directory.getUser(userId);
+    }
+
+    @Nullable
+    private static HrmDepartment getDepartment(int departmentId) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        return directory == null ? null : directory.getDepartment(departmentId);
+    }
+
+    @Nullable
+    private static HrmSubCompany getSubCompany(int subCompanyId) {
+        HrmDirectorySnapshot directory = HrmDirectoryRegistry.getInstance().getSnapshot();
+        return directory == null ? null : directory.getSubCompany(subCompanyId);
+    }
 }
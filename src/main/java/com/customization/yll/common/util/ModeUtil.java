@@ -1,12 +1,19 @@
 package com.customization.yll.common.util;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Convert;
 import com.customization.yll.common.bean.SearchPageFieldInfo;
+import com.customization.yll.common.enu.InsertStrategy;
 import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.mode.metadata.ModeCatalog;
+import com.customization.yll.common.mode.metadata.ModeCatalogRegistry;
+import com.customization.yll.common.mode.metadata.ModeMeta;
+import com.customization.yll.common.mode.right.ModeRightRebuildQueue;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
 import weaver.conn.RecordSetExecutionInterface;
-import weaver.formmode.setup.ModeRightInfo;
+import weaver.conn.RecordSetTrans;
 import weaver.integration.logging.Logger;
 import weaver.integration.logging.LoggerFactory;
 
@@ -21,6 +28,10 @@ import java.util.*;
 @UtilityClass
 public class ModeUtil {
     private static final Logger logger = LoggerFactory.getLogger(ModeUtil.class);
+    /**
+     * 根据 modeuuid 批量查询数据id时，每次查询的 uuid 数量，不超过 oracle in 子句 1000 个的限制
+     */
+    private static final int UUID_QUERY_SIZE = 1000;
 
     /**
      * 根据建模表名获取到对应的建模id
@@ -40,6 +51,11 @@ public class ModeUtil {
      * @return 建模id，如果获取不到则返回-1
      */
     public static int getModeIdByTableName(String tableName, RecordSet recordSet) {
+        ModeCatalog catalog = ModeCatalogRegistry.getInstance().getSnapshot();
+        ModeMeta mode = catalog == null || tableName == null ? null : catalog.getModeByTableName(tableName);
+        if (mode != null) {
+            return mode.getId();
+        }
         String getModeIdSql = "select b.id from workflow_bill a,modeinfo b where a.tablename = ? and b.formid = a.id";
         recordSet.executeQuery(getModeIdSql, tableName);
         recordSet.next();
@@ -47,6 +63,10 @@ public class ModeUtil {
     }
 
     public static String getTableNameByModeId(int modeId, RecordSet recordSet) {
+        ModeMeta mode = getCatalogMode(modeId);
+        if (mode != null && !mode.getTableName().isEmpty()) {
+            return mode.getTableName();
+        }
         recordSet.executeQuery("select a.tablename from workflow_bill a,modeinfo b " +
                 "where b.id=? and b.formid = a.id", modeId);
         recordSet.next();
@@ -54,6 +74,11 @@ public class ModeUtil {
     }
 
     public static String getTableNameBySearchId(int searchId, RecordSet recordSet) {
+        ModeCatalog catalog = ModeCatalogRegistry.getInstance().getSnapshot();
+        ModeMeta mode = catalog == null ? null : catalog.getSearchMode(searchId);
+        if (mode != null && !mode.getTableName().isEmpty()) {
+            return mode.getTableName();
+        }
         recordSet.executeQuery("SELECT modeid from mode_customsearch where id=?", searchId);
         recordSet.next();
         int modeId = recordSet.getInt("modeid");
@@ -68,6 +93,10 @@ public class ModeUtil {
      * @return 表单id
      */
     public static Optional<Integer> getFormId(int modeId, RecordSet recordSet) {
+        ModeMeta mode = getCatalogMode(modeId);
+        if (mode != null && mode.getFormId() != 0) {
+            return Optional.of(mode.getFormId());
+        }
         if (!recordSet.executeQuery("SELECT formid FROM modeinfo WHERE id=?", modeId)) {
             throw new SqlExecuteException("执行sql失败，modeid=" + modeId);
         }
@@ -89,6 +118,30 @@ public class ModeUtil {
      * @return 建模查询的字段信息
      */
     public static List<SearchPageFieldInfo> getSearchPageFields(int searchId, RecordSet recordSet) {
+        ModeCatalog catalog = ModeCatalogRegistry.getInstance().getSnapshot();
+        if (catalog == null) {
+            return querySearchPageFields(searchId, recordSet);
+        }
+        List<SearchPageFieldInfo> cached = catalog.getSearchFields(searchId);
+        if (cached == null) {
+            cached = querySearchPageFields(searchId, recordSet);
+            catalog.putSearchFields(searchId, cached);
+        }
+        // 缓存中的对象是共享的，返回副本
+        List<SearchPageFieldInfo> result = new ArrayList<>(cached.size());
+        for (SearchPageFieldInfo field : cached) {
+            SearchPageFieldInfo copy = new SearchPageFieldInfo();
+            copy.setFieldName(field.getFieldName());
+            copy.setFieldId(field.getFieldId());
+            copy.setShow(field.isShow());
+            copy.setShowName(field.getShowName());
+            copy.setDetailTable(field.getDetailTable());
+            result.add(copy);
+        }
+        return result;
+    }
+
+    private static List<SearchPageFieldInfo> querySearchPageFields(int searchId, RecordSet recordSet) {
         List<SearchPageFieldInfo> fieldInfoList = new ArrayList<>();
         recordSet.executeQuery("select b.LABELNAME,f.fieldname,f.detailtable,a.isshow,a.FIELDID from mode_customdspfield a " +
                 "left join htmllabelinfo b on a.SHOWNAMELABEL = b.indexid AND b.LANGUAGEID = 7 " +
@@ -188,11 +241,12 @@ public class ModeUtil {
         if (!DbUtil.insertByRsInterface(tableName, data, recordSet)) {
             return Optional.empty();
         }
+        Integer dataId = queryIdsByUuids(Collections.singletonList(uuid), tableName, recordSet).get(uuid);
+        if (dataId == null) {
+            logger.error("无法查询到新增数据id，tableName=" + tableName + "，uuid:" + uuid);
+            return Optional.empty();
+        }
         // 执行权限重构
-        recordSet.executeSql("select id from " + tableName + " where modeuuid=?", true,
-                "", false, uuid);
-        recordSet.next();
-        int dataId = recordSet.getInt("id");
         reconstructionJC(dataId, modeId, 1);
         return Optional.of(dataId);
     }
@@ -230,35 +284,45 @@ public class ModeUtil {
     public static boolean batchInsertToModeByRsInterface(List<Map<String, Object>> data, String tableName, int modeId,
                                                          boolean isReconstructionJC,
                                                          RecordSetExecutionInterface recordSet) throws Exception {
-        List<String> uuids = new ArrayList<>();
-        List<Map<String, Object>> insertData = new ArrayList<>(data);
-        insertData.forEach(i -> {
-            String uuid = UUID.randomUUID().toString();
-            uuids.add(uuid);
-            addStanderFieldValue(i, modeId, uuid);
-        });
+        List<String> uuids = new ArrayList<>(data.size());
+        List<Map<String, Object>> insertData = prepareInsertData(data, modeId, uuids);
         if (!DbUtil.batchInsert(insertData, tableName, recordSet)) {
             return false;
         }
+        if (isReconstructionJC) {
+            rebuildRights(uuids, tableName, modeId, recordSet);
+        }
+        return true;
+    }
 
+    /**
+     * 建模台账批量插入数据，在事务中执行，可以指定插入方式，按每批 {@link DbUtil#DEFAULT_BATCH_SIZE} 行插入。<br>
+     * 分批插入时每批（多行插入时每条语句）单独执行，不在事务中时某一批失败会留下已提交的数据，调用方重试会插入重复数据，
+     * 因此只接受 RecordSetTrans，返回 false 或抛出异常时由调用方回滚
+     *
+     * @param data               批量数据
+     * @param tableName          建模表名称
+     * @param modeId             建模id
+     * @param isReconstructionJC 是否执行权限重构
+     * @param strategy           插入方式，数据库不支持多行插入时使用逐行批量插入
+     * @param recordSetTrans     事务 recordSet
+     * @return 是否成功，某一批执行失败时返回 false
+     * @throws Exception 数据库执行发生异常
+     * @see DbUtil#batchInsert(Iterator, String, int, InsertStrategy, RecordSetExecutionInterface)
+     */
+    public static boolean batchInsertToModeByRsInterface(List<Map<String, Object>> data, String tableName, int modeId,
+                                                         boolean isReconstructionJC, InsertStrategy strategy,
+                                                         RecordSetTrans recordSetTrans) throws Exception {
+        List<String> uuids = new ArrayList<>(data.size());
+        List<Map<String, Object>> insertData = prepareInsertData(data, modeId, uuids);
+        try {
+            DbUtil.batchInsert(insertData.iterator(), tableName, DbUtil.DEFAULT_BATCH_SIZE, strategy, recordSetTrans);
+        } catch (SqlExecuteException e) {
+            logger.error("批量插入建模数据失败，tableName=" + tableName, e);
+            return false;
+        }
         if (isReconstructionJC) {
-            List<Integer> ids = new ArrayList<>();
-            String sql = "select id from " + tableName + " where modeuuid=?";
-            for (String uuid : uuids) {
-                if (!recordSet.executeSql(sql, true, "", false, uuid)) {
-                    logger.error("根据uuid查询数据id失败");
-                    continue;
-                }
-                if (!recordSet.next()) {
-                    logger.warn("无法查询到数据id，uuid:" + uuid);
-                    continue;
-                }
-                ids.add(recordSet.getInt("id"));
-            }
-            if (ids.isEmpty()) {
-                logger.error("ids 集合为空");
-            }
-            ids.forEach(id -> reconstructionJC(id, modeId, 1));
+            rebuildRights(uuids, tableName, modeId, recordSetTrans);
         }
         return true;
     }
@@ -278,6 +342,71 @@ public class ModeUtil {
         return DbUtil.update(data, condition, tableName, recordSet);
     }
 
+    /**
+     * 复制数据并加上建模标准字段，生成的 modeuuid 按顺序加入 uuids
+     */
+    private static List<Map<String, Object>> prepareInsertData(List<Map<String, Object>> data, int modeId,
+                                                               List<String> uuids) {
+        List<Map<String, Object>> insertData = new ArrayList<>(data);
+        insertData.forEach(i -> {
+            String uuid = UUID.randomUUID().toString();
+            uuids.add(uuid);
+            addStanderFieldValue(i, modeId, uuid);
+        });
+        return insertData;
+    }
+
+    /**
+     * 根据 modeuuid 查询插入的数据id并执行权限重构
+     */
+    private static void rebuildRights(List<String> uuids, String tableName, int modeId,
+                                      RecordSetExecutionInterface recordSet) throws Exception {
+        Map<String, Integer> idsByUuid = queryIdsByUuids(uuids, tableName, recordSet);
+        List<Integer> ids = new ArrayList<>(uuids.size());
+        for (String uuid : uuids) {
+            Integer id = idsByUuid.get(uuid);
+            if (id == null) {
+                logger.warn("无法查询到数据id，uuid:" + uuid);
+                continue;
+            }
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            logger.error("ids 集合为空");
+        }
+        ids.forEach(id -> reconstructionJC(id, modeId, 1));
+    }
+
+    @Nullable
+    private static ModeMeta getCatalogMode(int modeId) {
+        ModeCatalog catalog = ModeCatalogRegistry.getInstance().getSnapshot();
+        return catalog == null ? null : catalog.getMode(modeId);
+    }
+
+    /**
+     * 根据 modeuuid 批量查询数据id，每次查询 {@link #UUID_QUERY_SIZE} 个
+     *
+     * @param uuids     modeuuid
+     * @param tableName 建模表名
+     * @param recordSet recordSet
+     * @return modeuuid 与数据id映射，查询不到的 uuid 不在结果中
+     */
+    private static Map<String, Integer> queryIdsByUuids(List<String> uuids, String tableName,
+                                                        RecordSetExecutionInterface recordSet) throws Exception {
+        Map<String, Integer> ids = new HashMap<>(uuids.size() * 2);
+        for (List<String> chunk : CollUtil.split(uuids, UUID_QUERY_SIZE)) {
+            String sql = "select id,modeuuid from " + tableName + " where modeuuid in ("
+                    + SqlUtil.buildInClausePlaceholders(chunk.size()) + ")";
+            if (!recordSet.executeSql(sql, true, "", false, chunk.toArray())) {
+                throw new SqlExecuteException("根据uuid查询数据id失败，tableName=" + tableName, sql);
+            }
+            while (recordSet.next()) {
+                ids.put(recordSet.getString("modeuuid"), recordSet.getInt("id"));
+            }
+        }
+        return ids;
+    }
+
     private static void addStanderFieldValue(Map<String, Object> fieldData, int modeId, String uuid) {
         long currentTime = System.currentTimeMillis();
         SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
@@ -293,16 +422,14 @@ public class ModeUtil {
     }
 
     /**
-     * 权限重构
+     * 权限重构，开启 {@link ModeRightRebuildQueue} 时异步执行
      *
      * @param id      数据id
      * @param modelId 模块id
      * @param userId  用户id
      */
     private static void reconstructionJC(int id, int modelId, int userId) {
-        ModeRightInfo modeRightInfo = new ModeRightInfo();
-        modeRightInfo.setNewRight(true);
-        modeRightInfo.editModeDataShare(userId, modelId, id);
+        ModeRightRebuildQueue.getInstance().submit(modelId, id, userId);
     }
 
 }
@@ -2,12 +2,15 @@ package com.customization.yll.common.util;
 
 import com.customization.yll.common.enu.LanguageType;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * @author 姚礼林
@@ -16,6 +19,27 @@ import java.util.regex.Pattern;
  */
 @UtilityClass
 public class MultiLanguageUtil {
+    /**
+     * 多语言表（syslanguage）缓存key，删除该key可以让所有节点重新加载多语言表
+     */
+    public static final String LANGUAGE_CACHE_KEY = "syslanguage";
+    /**
+     * 多语言表缓存时间，单位毫秒
+     */
+    private static final long LANGUAGE_EXPIRE_MILLIS = 60 * 60 * 1000L;
+    private static final String TAG_START = "~`";
+    private static final char TAG_END = '`';
+    @Nullable
+    private static volatile LanguageTable languageTable;
+
+    static {
+        CacheUtil.addInvalidationListener((key, prefix) -> {
+            if (prefix ? LANGUAGE_CACHE_KEY.startsWith(key) : LANGUAGE_CACHE_KEY.equals(key)) {
+                languageTable = null;
+            }
+        });
+    }
+
     /**
      * 转换为多语言格式文本
      * @param cnName 中文名称
@@ -30,34 +54,37 @@ public class MultiLanguageUtil {
         if (enName == null || enName.isEmpty()) {
             return cnName;
         }
-        Map<Integer, String> languageInfo = getLanguageInfo(recordSet);
-        int chineseId =  0;
-        int englishId = 0;
-        for (Map.Entry<Integer, String> entry : languageInfo.entrySet()) {
-            if ("简体中文".equals(entry.getValue())) {
-                chineseId = entry.getKey();
-            }
-            if ("English".equals(entry.getValue())) {
-                englishId =  entry.getKey();
-            }
-        }
+        int chineseId = getLanguageId(LanguageType.CN, recordSet);
+        int englishId = getLanguageId(LanguageType.EN, recordSet);
         return "~`~" + String.format("`%d %s`~", chineseId, cnName) +
                 String.format("`%d %s`~", englishId, enName) +
                 "`~";
     }
 
     /**
-     * 获取系统里的多语言信息
+     * 获取系统里的多语言信息，多语言表很少变化，加载后缓存一小时，可以通过 {@link #clearLanguageCache()} 立即重新加载
      * @param recordSet recordSet
      * @return map，key为语言id，value为语言名称
      */
     public static Map<Integer, String> getLanguageInfo(RecordSet recordSet) {
-        Map<Integer, String> languageInfo = new HashMap<>(10);
-        recordSet.executeQuery("SELECT id,language from syslanguage");
-        while (recordSet.next()) {
-            languageInfo.put(recordSet.getInt("id"), recordSet.getString("language"));
-        }
-        return languageInfo;
+        return new HashMap<>(getLanguageTable(recordSet).names);
+    }
+
+    /**
+     * 获取语言id
+     * @param languageType 语言
+     * @param recordSet recordSet
+     * @return 语言id，系统中没有该语言时返回 0
+     */
+    public static int getLanguageId(LanguageType languageType, RecordSet recordSet) {
+        return getLanguageTable(recordSet).ids.getOrDefault(languageType.getName(), 0);
+    }
+
+    /**
+     * 清除多语言表缓存，开启失效广播时其他节点也会清除
+     */
+    public static void clearLanguageCache() {
+        CacheUtil.deleteLocalCacheByPrefix(LANGUAGE_CACHE_KEY);
     }
 
     /**
@@ -65,24 +92,155 @@ public class MultiLanguageUtil {
      * @param multiLanguageText 多语言格式文本
      * @param languageType 指定语言
      * @param recordSet recordSet
-     * @return 多语言文本中的指定语言文本
+     * @return 多语言文本中的指定语言文本，不是多语言文本或没有指定语言时返回原文本
      */
     public static String analyzeMultiLanguageText(String multiLanguageText,LanguageType languageType,RecordSet recordSet) {
-        if (!multiLanguageText.contains("~`")) {
+        if (multiLanguageText == null || !multiLanguageText.contains(TAG_START)) {
             return multiLanguageText;
         }
-        int languageId = 0;
-        Map<Integer, String> languageInfo = getLanguageInfo(recordSet);
-        for (Map.Entry<Integer, String> entry : languageInfo.entrySet()) {
-            if (entry.getValue().equals(languageType.getName())) {
-                languageId = entry.getKey();
+        String text = extractLanguageText(multiLanguageText, getLanguageId(languageType, recordSet));
+        return text == null ? multiLanguageText : text;
+    }
+
+    /**
+     * 批量解析多语言文本，用于导出等逐行处理同一列的场景，只获取一次语言id
+     * @param multiLanguageTexts 多语言格式文本，可以包含普通文本和 null
+     * @param languageType 指定语言
+     * @param recordSet recordSet
+     * @return 指定语言文本，与传入的文本一一对应，规则同 {@link #analyzeMultiLanguageText(String, LanguageType, RecordSet)}
+     */
+    public static List<String> analyzeMultiLanguageTexts(List<String> multiLanguageTexts, LanguageType languageType,
+                                                         RecordSet recordSet) {
+        List<String> result = new ArrayList<>(multiLanguageTexts.size());
+        int languageId = -1;
+        for (String multiLanguageText : multiLanguageTexts) {
+            if (multiLanguageText == null || !multiLanguageText.contains(TAG_START)) {
+                result.add(multiLanguageText);
+                continue;
             }
+            if (languageId < 0) {
+                languageId = getLanguageId(languageType, recordSet);
+            }
+            String text = extractLanguageText(multiLanguageText, languageId);
+            result.add(text == null ? multiLanguageText : text);
         }
-        Pattern pattern = Pattern.compile("~`"+languageId+" (.*?)`");
-        Matcher matcher = pattern.matcher(multiLanguageText);
-        if (matcher.find()) {
-            return matcher.group(1);
+        return result;
+    }
+
+    /**
+     * 获取多语言文本中指定语言id的文本，多语言文本格式如：~`~`7 中文`~`8 English`~`~。
+     * 只扫描一遍字符串，找到后直接截取，不使用正则
+     * @param multiLanguageText 多语言格式文本
+     * @param languageId 语言id
+     * @return 指定语言文本，找不到返回 null
+     */
+    @Nullable
+    public static String extractLanguageText(String multiLanguageText, int languageId) {
+        int index = multiLanguageText.indexOf(TAG_START);
+        while (index >= 0) {
+            int textStart = tagTextStart(multiLanguageText, index);
+            if (textStart < 0) {
+                index = multiLanguageText.indexOf(TAG_START, index + 1);
+                continue;
+            }
+            int textEnd = multiLanguageText.indexOf(TAG_END, textStart);
+            if (textEnd < 0) {
+                return null;
+            }
+            if (tagLanguageId(multiLanguageText, index) == languageId) {
+                return multiLanguageText.substring(textStart, textEnd);
+            }
+            index = multiLanguageText.indexOf(TAG_START, textEnd);
+        }
+        return null;
+    }
+
+    /**
+     * 一次解析多语言文本中的所有语言
+     * @param multiLanguageText 多语言格式文本
+     * @return map，key为语言id，value为该语言文本，按文本中的顺序排列，同一语言出现多次时取第一个；
+     * 不是多语言文本时返回空 map
+     */
+    public static Map<Integer, String> parseMultiLanguageText(String multiLanguageText) {
+        if (multiLanguageText == null || !multiLanguageText.contains(TAG_START)) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, String> result = new LinkedHashMap<>(8);
+        int index = multiLanguageText.indexOf(TAG_START);
+        while (index >= 0) {
+            int textStart = tagTextStart(multiLanguageText, index);
+            if (textStart < 0) {
+                index = multiLanguageText.indexOf(TAG_START, index + 1);
+                continue;
+            }
+            int textEnd = multiLanguageText.indexOf(TAG_END, textStart);
+            if (textEnd < 0) {
+                break;
+            }
+            result.putIfAbsent(tagLanguageId(multiLanguageText, index),
+                    multiLanguageText.substring(textStart, textEnd));
+            index = multiLanguageText.indexOf(TAG_START, textEnd);
+        }
+        return result;
+    }
+
+    /**
+     * 获取语言标记（~`语言id 空格）后文本的开始位置
+     * @return 文本开始位置，index 处不是语言标记时返回 -1
+     */
+    private static int tagTextStart(String text, int index) {
+        int i = index + TAG_START.length();
+        int digitStart = i;
+        while (i < text.length() && i - digitStart < 9 && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == digitStart || i >= text.length() || text.charAt(i) != ' ') {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    private static int tagLanguageId(String text, int index) {
+        int id = 0;
+        for (int i = index + TAG_START.length(); text.charAt(i) != ' '; i++) {
+            id = id * 10 + (text.charAt(i) - '0');
+        }
+        return id;
+    }
+
+    private static LanguageTable getLanguageTable(RecordSet recordSet) {
+        LanguageTable table = languageTable;
+        if (table == null || System.currentTimeMillis() - table.loadTime > LANGUAGE_EXPIRE_MILLIS) {
+            table = loadLanguageTable(recordSet);
+            // 查询失败时不缓存空表，下次重新查询
+            if (!table.names.isEmpty()) {
+                languageTable = table;
+            }
+        }
+        return table;
+    }
+
+    private static LanguageTable loadLanguageTable(RecordSet recordSet) {
+        Map<Integer, String> names = new HashMap<>(10);
+        Map<String, Integer> ids = new HashMap<>(10);
+        recordSet.executeQuery("SELECT id,language from syslanguage");
+        while (recordSet.next()) {
+            int id = recordSet.getInt("id");
+            String name = recordSet.getString("language");
+            names.put(id, name);
+            ids.put(name, id);
+        }
+        return new LanguageTable(names, ids);
+    }
+
+    private static final class LanguageTable {
+        private final Map<Integer, String> names;
+        private final Map<String, Integer> ids;
+        private final long loadTime = System.currentTimeMillis();
+
+        LanguageTable(Map<Integer, String> names, Map<String, Integer> ids) {
+            this.names = names;
+            this.ids = ids;
         }
-        return multiLanguageText;
     }
 }
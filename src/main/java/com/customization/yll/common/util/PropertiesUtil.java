@@ -4,6 +4,7 @@ package com.customization.yll.common.util;
 import com.customization.yll.common.exception.PropNotConfigureException;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import weaver.file.Prop;
 import weaver.general.GCONST;
 import weaver.integration.logging.Logger;
@@ -14,8 +15,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author 姚礼林
@@ -26,28 +31,88 @@ public class PropertiesUtil {
     private static final Logger log = LoggerFactory.getLogger(PropertiesUtil.class);
     private static final String PREFIX_CACHE_KEY = "config:";
     public static final int DEFAULT_EXPIRE_THREE_MINUTES = 60 * 3;
+    /**
+     * 已解析的配置文件，key 为配置文件名称
+     */
+    private static final ConcurrentHashMap<String, ParsedProperties> PARSED_PROPERTIES = new ConcurrentHashMap<>();
 
     private PropertiesUtil() {
 
     }
 
     /**
-     * 获取配置文件，解决了配置文件中文乱码问题
+     * 获取配置文件，解决了配置文件中文乱码问题。解析结果按文件缓存，文件的修改时间或大小变化后才重新解析
      *
      * @param propFieldName 配置文件名称，不需要带扩展名后缀
-     * @return Properties对象
+     * @return Properties对象，每次返回新对象，可以修改
      */
     public static Properties fetchProperties(String propFieldName) {
         Properties prop = new Properties();
-        String path = GCONST.getPropertyPath() + propFieldName + ".properties";
-        try (InputStream inputStream = Files.newInputStream(Paths.get(path))) {
+        prop.putAll(getParsedProperties(propFieldName));
+        return prop;
+    }
+
+    /**
+     * 清除已解析的配置文件，下次读取时重新解析
+     */
+    public static void clearParsedProperties() {
+        PARSED_PROPERTIES.clear();
+    }
+
+    /**
+     * 获取已解析的配置文件，每次读取时检查文件的修改时间和大小（一次文件属性读取），变化后重新解析，
+     * 读取到的值总是与文件一致。返回的对象是共享的，不能修改
+     */
+    private static Properties getParsedProperties(String fileName) {
+        Path path = Paths.get(GCONST.getPropertyPath() + fileName + ".properties");
+        long[] stamp = readFileStamp(path);
+        ParsedProperties parsed = PARSED_PROPERTIES.get(fileName);
+        if (parsed != null && parsed.lastModified == stamp[0] && parsed.size == stamp[1]) {
+            return parsed.properties;
+        }
+        // 先取文件属性再解析，解析期间文件被修改时下次读取会再次解析
+        Properties properties = loadProperties(path);
+        if (properties == null) {
+            // 读取失败时不缓存，下次读取时重试
+            PARSED_PROPERTIES.remove(fileName);
+            return new Properties();
+        }
+        PARSED_PROPERTIES.put(fileName, new ParsedProperties(properties, stamp[0], stamp[1]));
+        return properties;
+    }
+
+    /**
+     * 解析配置文件
+     *
+     * @return 配置，读取失败时返回 null
+     */
+    @Nullable
+    private static Properties loadProperties(Path path) {
+        Properties prop = new Properties();
+        try (InputStream inputStream = Files.newInputStream(path)) {
             prop.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         } catch (IOException e) {
             log.error("获取配置文件失败", e);
+            return null;
         }
         return prop;
     }
 
+    /**
+     * 读取文件的修改时间和大小，文件不存在或无法读取时都为 -1
+     */
+    private static long[] readFileStamp(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new long[]{attributes.lastModifiedTime().toMillis(), attributes.size()};
+        } catch (NoSuchFileException e) {
+            return new long[]{-1, -1};
+        } catch (IOException e) {
+            log.warn("读取配置文件属性失败：" + path, e);
+            return new long[]{-1, -1};
+        }
+    }
+
     /**
      * 将配置文件中的配置项转换成Map，例如可将这些字符串转换为map：a:1,b:2,c:3 ，转换后的map为：{a:1,b:2,c:3}
      *
@@ -101,8 +166,7 @@ public class PropertiesUtil {
      */
     public static String getPropValueWithChineseHandle(String fileName, String propName, boolean required)
             throws PropNotConfigureException {
-        Properties properties = fetchProperties(fileName);
-        String value = properties.getProperty(propName);
+        String value = getParsedProperties(fileName).getProperty(propName);
         if (required && StringUtils.isEmpty(value)) {
             throw new PropNotConfigureException("配置文件 " + fileName + " [" + propName + "] 属性未配置");
         }
@@ -122,14 +186,8 @@ public class PropertiesUtil {
                                       boolean cache)
             throws PropNotConfigureException {
         if (cache) {
-            String cacheKey = getCacheKey(fileName, propName);
-            Object  cacheValue = CacheUtil.getCache(cacheKey);
-            if (cacheValue != null) {
-                return (String) cacheValue;
-            }
-            String value = getPropValue(fileName, propName, required);
-            CacheUtil.putCache(cacheKey, value, DEFAULT_EXPIRE_THREE_MINUTES);
-            return value;
+            return CacheUtil.getOrLoad(getCacheKey(fileName, propName), DEFAULT_EXPIRE_THREE_MINUTES,
+                    () -> getPropValue(fileName, propName, required));
         }
         return getPropValue(fileName, propName, required);
     }
@@ -148,20 +206,15 @@ public class PropertiesUtil {
                                       boolean cache,int expireSeconds)
             throws PropNotConfigureException {
         if (cache) {
-            String cacheKey = getCacheKey(fileName, propName);
-            Object  cacheValue = CacheUtil.getCache(cacheKey);
-            if (cacheValue != null) {
-                return (String) cacheValue;
-            }
-            String value = getPropValue(fileName, propName, required);
-            CacheUtil.putCache(cacheKey, value, expireSeconds);
-            return value;
+            return CacheUtil.getOrLoad(getCacheKey(fileName, propName), expireSeconds,
+                    () -> getPropValue(fileName, propName, required));
         }
         return getPropValue(fileName, propName, required);
     }
 
     /**
-     * 获取配置文件属性值，处理配置文件中的中文
+     * 获取配置文件属性值，处理配置文件中的中文。配置文件的解析结果已按文件修改时间缓存，读取的值总是最新的，
+     * cache 和 expireSeconds 参数不再起作用，保留用于兼容
      * @param fileName 配置文件名称
      * @param propName 属性名称
      * @param required 是否必需，如果是必需，则属性值为空时将抛出异常
@@ -173,16 +226,6 @@ public class PropertiesUtil {
     public static String getPropValueWithChineseHandle(String fileName, String propName, boolean required,
                                       boolean cache,int expireSeconds)
             throws PropNotConfigureException {
-        if (cache) {
-            String cacheKey = getCacheKey(fileName, propName);
-            Object cacheValue = CacheUtil.getCache(cacheKey);
-            if (cacheValue != null) {
-                return (String) cacheValue;
-            }
-            String value = getPropValueWithChineseHandle(fileName, propName, required);
-            CacheUtil.putCache(cacheKey, value, expireSeconds);
-            return value;
-        }
         return getPropValueWithChineseHandle(fileName, propName, required);
     }
 
@@ -218,9 +261,31 @@ public class PropertiesUtil {
         return false;
     }
 
+    /**
+     * 开启缓存属性值的提前刷新，缓存时间过去指定比例后，读取时直接返回当前缓存值并在后台重新读取配置文件，
+     * 读取配置不会因为缓存过期而等待。与 {@link com.customization.yll.common.mode.util.ModeConfigUtil}
+     * 使用相同的缓存前缀，开启后两者都会生效
+     *
+     * @param ratio 刷新时间比例，大于 0 小于 1，例如 0.8 表示缓存时间过去 80% 后开始刷新
+     */
+    public static void enableRefreshAhead(double ratio) {
+        CacheUtil.enableRefreshAhead(PREFIX_CACHE_KEY, ratio);
+    }
+
     @NotNull
     private static String getCacheKey(String fileName, String propName) {
         return PREFIX_CACHE_KEY + fileName + ":" + propName;
     }
 
+    private static final class ParsedProperties {
+        private final Properties properties;
+        private final long lastModified;
+        private final long size;
+
+        ParsedProperties(Properties properties, long lastModified, long size) {
+            this.properties = properties;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
 }
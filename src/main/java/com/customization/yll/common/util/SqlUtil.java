@@ -102,6 +102,116 @@ public class SqlUtil {
         return sql.toString();
     }
 
+    /**
+     * 生成多行插入语句，如 insert into t (a,b) values (?,?),(?,?)，参数按行依次传入
+     *
+     * @param tableName  表名
+     * @param fieldNames 字段名
+     * @param rowCount   行数，必需大于 0
+     * @return sql 插入语句
+     */
+    public static String buildMultiRowInsertSql(String tableName, List<String> fieldNames, int rowCount) {
+        if (rowCount < 1) {
+            throw new IllegalArgumentException("[rowCount] 必需大于 0");
+        }
+        String rowPlaceholders = "(" + buildInClausePlaceholders(fieldNames.size()) + ")";
+        StringBuilder sql = new StringBuilder(tableName.length() + fieldNames.size() * 16
+                + (rowPlaceholders.length() + 1) * rowCount);
+        sql.append("insert into ").append(tableName).append(" (").append(String.join(",", fieldNames))
+                .append(") values ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(",");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 数据库是否支持多行插入语句
+     *
+     * @param dbType 数据库类型
+     * @return mysql、mariadb、postgresql 返回 true
+     */
+    public static boolean isMultiRowInsertSupported(String dbType) {
+        String normalizedDbType = normalizeDbType(dbType);
+        return "mysql".equals(normalizedDbType) || "mariadb".equals(normalizedDbType)
+                || "postgresql".equals(normalizedDbType) || "postgres".equals(normalizedDbType);
+    }
+
+    /**
+     * 生成插入或更新语句（upsert），按主键字段判断记录是否存在，存在则更新非主键字段，不存在则插入，
+     * 语句中字段的值用?占位符表示，参数按 fieldNames 的顺序传入。<br>
+     * mysql 使用 on duplicate key update，要求主键字段上有主键或唯一索引；postgresql 使用 on conflict，
+     * 要求主键字段上有唯一约束；oracle、达梦、sqlserver 使用 merge
+     *
+     * @param dbType     数据库类型
+     * @param tableName  表名
+     * @param fieldNames 所有字段名，包括主键字段
+     * @param keyColumns 主键字段名，必需包含在 fieldNames 中
+     * @return sql 语句
+     * @throws IllegalArgumentException 主键字段为空或不在字段中，或者数据库类型不支持
+     */
+    public static String buildUpsertSql(String dbType, String tableName, List<String> fieldNames,
+                                        List<String> keyColumns) {
+        if (keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("[keyColumns] 主键字段不能为空");
+        }
+        for (String keyColumn : keyColumns) {
+            if (!fieldNames.contains(keyColumn)) {
+                throw new IllegalArgumentException("主键字段不在插入字段中：" + keyColumn);
+            }
+        }
+        List<String> updateColumns = new ArrayList<>(fieldNames);
+        updateColumns.removeAll(keyColumns);
+        String normalizedDbType = normalizeDbType(dbType);
+        if ("mysql".equals(normalizedDbType) || "mariadb".equals(normalizedDbType)) {
+            // 没有需要更新的字段时，用主键赋值给自己表示忽略
+            List<String> assignments = new ArrayList<>();
+            if (updateColumns.isEmpty()) {
+                assignments.add(keyColumns.get(0) + "=" + keyColumns.get(0));
+            }
+            updateColumns.forEach(i -> assignments.add(i + "=values(" + i + ")"));
+            return buildInsertSql(tableName, fieldNames) + " on duplicate key update "
+                    + String.join(",", assignments);
+        }
+        if ("postgresql".equals(normalizedDbType) || "postgres".equals(normalizedDbType)) {
+            StringBuilder sql = new StringBuilder(buildInsertSql(tableName, fieldNames))
+                    .append(" on conflict (").append(String.join(",", keyColumns)).append(") do ");
+            if (updateColumns.isEmpty()) {
+                return sql.append("nothing").toString();
+            }
+            sql.append("update set ");
+            updateColumns.forEach(i -> sql.append(i).append("=excluded.").append(i).append(","));
+            sql.delete(sql.length() - 1, sql.length());
+            return sql.toString();
+        }
+        boolean oracle = "oracle".equals(normalizedDbType) || "dm".equals(normalizedDbType);
+        if (!oracle && !"sqlserver".equals(normalizedDbType)) {
+            throw new IllegalArgumentException("不支持的数据库类型：" + dbType);
+        }
+        StringBuilder sql = new StringBuilder("merge into ").append(tableName).append(oracle ? " t" : " as t")
+                .append(" using (select ");
+        fieldNames.forEach(i -> sql.append("? ").append(oracle ? "" : "as ").append(i).append(","));
+        sql.delete(sql.length() - 1, sql.length());
+        sql.append(oracle ? " from dual) s on (" : ") as s on (");
+        keyColumns.forEach(i -> sql.append("t.").append(i).append("=s.").append(i).append(" and "));
+        sql.delete(sql.length() - " and ".length(), sql.length());
+        sql.append(")");
+        if (!updateColumns.isEmpty()) {
+            sql.append(" when matched then update set ");
+            updateColumns.forEach(i -> sql.append("t.").append(i).append("=s.").append(i).append(","));
+            sql.delete(sql.length() - 1, sql.length());
+        }
+        sql.append(" when not matched then insert (").append(String.join(",", fieldNames)).append(") values (");
+        fieldNames.forEach(i -> sql.append("s.").append(i).append(","));
+        sql.delete(sql.length() - 1, sql.length());
+        sql.append(")");
+        // sqlserver 的 merge 语句必需以分号结尾
+        return oracle ? sql.toString() : sql.append(";").toString();
+    }
+
     /**
      * 构件相等条件的where语句<br>
      * 如果没有条件语句，泽返回空串，表示没有条件
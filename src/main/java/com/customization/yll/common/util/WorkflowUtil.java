@@ -2,6 +2,13 @@ package com.customization.yll.common.util;
 
 import com.api.formmode.page.util.Util;
 import com.customization.yll.common.bean.WorkflowNodeInfo;
+import com.customization.yll.common.workflow.metadata.FormMeta;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataRegistry;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataSnapshot;
+import com.customization.yll.common.workflow.metadata.WorkflowNodeCatalogCache;
+import com.customization.yll.common.workflow.metadata.WorkflowNodeMeta;
+import com.customization.yll.common.workflow.metadata.WorkflowVersionIndex;
+import com.customization.yll.common.workflow.metadata.WorkflowVersionRegistry;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.Nullable;
 import weaver.conn.RecordSet;
@@ -207,6 +214,11 @@ public class WorkflowUtil {
      * @return 流程表单表名
      */
     public static String getWorkflowTableName(int workflowId,RecordSet recordSet) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        FormMeta form = metadata == null ? null : metadata.getWorkflowForm(workflowId);
+        if (form != null) {
+            return form.getTableName();
+        }
         recordSet.executeQuery("select b.tablename from workflow_base w,workflow_bill b where  " +
                 "w.id = ? AND w.formid = b.id", workflowId);
         recordSet.next();
@@ -220,6 +232,9 @@ public class WorkflowUtil {
      * @return 流程表单表名
      */
     public static String getWorkflowTableNameByRequestId(int requestId, RecordSet recordSet) {
+        if (WorkflowMetadataRegistry.getInstance().isEnabled()) {
+            return getWorkflowTableName(getWorkflowId(requestId, recordSet), recordSet);
+        }
         recordSet.executeQuery("SELECT b.tablename from workflow_bill b " +
                 "join workflow_base a on a.formid = b.id " +
                 "join workflow_requestbase r on r.WORKFLOWID = a.id " +
@@ -274,6 +289,10 @@ public class WorkflowUtil {
      * @return 当前流程id是否属于某个流程id的后面版本
      */
     public static boolean isCurrentOrAfterWorkflowVersion(int compareWorkflowId, int currentWorkflowId) {
+        WorkflowVersionIndex versionIndex = WorkflowVersionRegistry.getInstance().getSnapshot();
+        if (versionIndex != null && versionIndex.contains(currentWorkflowId)) {
+            return versionIndex.isCurrentOrAfter(compareWorkflowId, currentWorkflowId);
+        }
         WorkflowVersion workflowVersion = new WorkflowVersion(currentWorkflowId+"");
         List<Map<String, String>> allVersionList = workflowVersion.getAllVersionList();
         for (Map<String, String> versionItem : allVersionList) {
@@ -313,6 +332,10 @@ public class WorkflowUtil {
      * @return 所有流程版本的流程id
      */
     public static List<Integer> getAllVersionsWorkflowIds(int workflowId) {
+        WorkflowVersionIndex versionIndex = WorkflowVersionRegistry.getInstance().getSnapshot();
+        if (versionIndex != null && versionIndex.contains(workflowId)) {
+            return versionIndex.getAllVersions(workflowId);
+        }
         List<Integer> result = new ArrayList<>();
         WorkflowVersion workflowVersion = new WorkflowVersion(workflowId+"");
         List<Map<String, String>> allVersionList = workflowVersion.getAllVersionList();
@@ -354,17 +377,10 @@ public class WorkflowUtil {
      * @return 流程节点信息列表
      */
     public static List<WorkflowNodeInfo> getNodeList(int workflowId,RecordSet recordSet) {
-        List<WorkflowNodeInfo> result = new ArrayList<>();
-        recordSet.executeQuery("SELECT b.id,b.nodename,b.nodeattribute,n.nodetype " +
-                "FROM workflow_flownode n JOIN workflow_nodebase b ON n.nodeid=b.id " +
-                "WHERE n.workflowid=?", workflowId);
-        while (recordSet.next()) {
-            WorkflowNodeInfo nodeInfo = new WorkflowNodeInfo();
-            nodeInfo.setId(recordSet.getInt("id"));
-            nodeInfo.setNodeName(recordSet.getString("nodename"));
-            nodeInfo.setAttribute(recordSet.getString("nodeattribute"));
-            nodeInfo.setNodeType(recordSet.getString("nodetype"));
-            result.add(nodeInfo);
+        List<WorkflowNodeMeta> nodes = WorkflowNodeCatalogCache.getInstance().get(workflowId, recordSet).getNodes();
+        List<WorkflowNodeInfo> result = new ArrayList<>(nodes.size());
+        for (WorkflowNodeMeta node : nodes) {
+            result.add(node.toNodeInfo());
         }
         return result;
     }
@@ -377,13 +393,8 @@ public class WorkflowUtil {
      */
     @Nullable
     public static WorkflowNodeInfo getCreateNode(int workflowId, RecordSet recordSet) {
-        List<WorkflowNodeInfo> nodeList = getNodeList(workflowId, recordSet);
-        for (WorkflowNodeInfo nodeInfo : nodeList) {
-            if ("0".equals(nodeInfo.getNodeType())) {
-                return nodeInfo;
-            }
-        }
-        return null;
+        WorkflowNodeMeta createNode = WorkflowNodeCatalogCache.getInstance().get(workflowId, recordSet).getCreateNode();
+        return createNode == null ? null : createNode.toNodeInfo();
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.customization.yll.common.workflow.metadata;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 表单字段信息，对应 workflow_billfield 表
+ * @date 2026/10/17
+ **/
+@Data
+public class FormFieldMeta {
+    private final int id;
+    /**
+     * 表单id，对应 workflow_bill 表的id
+     */
+    private final int billId;
+    /**
+     * 字段数据库名称
+     */
+    private final String fieldName;
+    /**
+     * 明细表名，主表字段为空字符串
+     */
+    private final String detailTable;
+    private final String fieldHtmlType;
+    private final String type;
+    private final String selectItemType;
+    /**
+     * 公共选择框id
+     */
+    private final String pubChoiceId;
+    /**
+     * 字段显示名称（中文）
+     */
+    private final String labelName;
+
+    public boolean isDetail() {
+        return !detailTable.isEmpty();
+    }
+}
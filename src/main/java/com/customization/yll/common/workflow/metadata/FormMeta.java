@@ -0,0 +1,60 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 表单信息，对应 workflow_bill 表，包含表单的所有字段，按 (明细表名, 字段名) 建立索引，字段名不区分大小写
+ * @date 2026/10/17
+ **/
+public final class FormMeta {
+    private final int id;
+    private final String tableName;
+    private final List<FormFieldMeta> fields;
+    private final Map<String, FormFieldMeta> fieldsByName;
+
+    public FormMeta(int id, String tableName, List<FormFieldMeta> fields) {
+        this.id = id;
+        this.tableName = tableName;
+        this.fields = Collections.unmodifiableList(fields);
+        Map<String, FormFieldMeta> index = new HashMap<>(Math.max(16, fields.size() * 2));
+        for (FormFieldMeta field : fields) {
+            index.put(fieldKey(field.getDetailTable(), field.getFieldName()), field);
+        }
+        this.fieldsByName = index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<FormFieldMeta> getFields() {
+        return fields;
+    }
+
+    /**
+     * 根据字段名获取字段
+     *
+     * @param detailTable 明细表名，主表字段传 null 或空字符串
+     * @param fieldName   字段数据库名称
+     * @return 字段信息，不存在返回 null
+     */
+    @Nullable
+    public FormFieldMeta getField(@Nullable String detailTable, String fieldName) {
+        return fieldsByName.get(fieldKey(detailTable, fieldName));
+    }
+
+    private static String fieldKey(@Nullable String detailTable, String fieldName) {
+        String detail = detailTable == null ? "" : detailTable.toLowerCase();
+        return detail + "." + fieldName.toLowerCase();
+    }
+}
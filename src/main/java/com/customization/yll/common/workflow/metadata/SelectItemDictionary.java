@@ -0,0 +1,95 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 选择框选项字典，选项值到显示名称的映射，选项值按升序保存在 int 数组中，查询时二分查找，不需要装箱。
+ * 创建后不可修改
+ * @date 2026/10/17
+ **/
+public final class SelectItemDictionary {
+    private static final String[] EMPTY_NAMES = new String[0];
+    private final int[] values;
+    private final String[] names;
+
+    /**
+     * @param values 选项值，可以无序，重复时保留第一个
+     * @param names  显示名称，与选项值一一对应
+     */
+    public SelectItemDictionary(int[] values, String[] names) {
+        if (values.length != names.length) {
+            throw new IllegalArgumentException("选项值与显示名称数量不一致");
+        }
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // 稳定排序，重复的选项值保留第一个
+        Arrays.sort(order, (a, b) -> Integer.compare(values[a], values[b]));
+        int[] sortedValues = new int[values.length];
+        String[] sortedNames = new String[values.length];
+        int size = 0;
+        for (Integer index : order) {
+            if (size > 0 && sortedValues[size - 1] == values[index]) {
+                continue;
+            }
+            sortedValues[size] = values[index];
+            sortedNames[size] = names[index];
+            size++;
+        }
+        this.values = Arrays.copyOf(sortedValues, size);
+        this.names = Arrays.copyOf(sortedNames, size);
+    }
+
+    /**
+     * 创建选项值为 0 到 names.length-1 的字典，用于按顺序取值的公共选择框
+     *
+     * @param names 按顺序排列的显示名称
+     * @return 选项字典
+     */
+    public static SelectItemDictionary ofSequence(String[] names) {
+        int[] values = new int[names.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        return new SelectItemDictionary(values, names);
+    }
+
+    public static SelectItemDictionary empty() {
+        return new SelectItemDictionary(new int[0], EMPTY_NAMES);
+    }
+
+    /**
+     * 获取选项显示名称
+     *
+     * @param value 选项值
+     * @return 显示名称，不存在返回 null
+     */
+    @Nullable
+    public String get(int value) {
+        int index = Arrays.binarySearch(values, value);
+        return index < 0 ? null : names[index];
+    }
+
+    /**
+     * 批量获取选项显示名称
+     *
+     * @param selectValues 选项值
+     * @return 显示名称，与传入的选项值一一对应，不存在的选项为空字符串
+     */
+    public String[] resolve(int[] selectValues) {
+        String[] result = new String[selectValues.length];
+        for (int i = 0; i < selectValues.length; i++) {
+            String name = get(selectValues[i]);
+            result[i] = name == null ? "" : name;
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,293 @@
+package com.customization.yll.common.workflow.metadata;
+
+import cn.hutool.core.util.StrUtil;
+import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.util.CacheUtil;
+import lombok.Data;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @author 姚礼林
+ * @desc 选择框选项字典缓存，每个字段的选项只需一次查询（workflow_selectitem 或 mode_selectitempagedetail）。<br>
+ * 默认不缓存，每次调用都查询数据库；调用 {@link #enable(int)} 开启后缓存在本节点内存中，
+ * 超过检查间隔后再次使用时重新读取选项行，与加载时的选项签名（行数、最大id、选项值和名称的校验和）比较，
+ * 没变化继续使用原字典，变化后（包括修改选项名称）替换为新字典。也可以通过 {@link #invalidate(int)} 主动失效
+ * @date 2026/10/17
+ **/
+public class SelectItemDictionaryCache {
+    private static final Logger log = LoggerFactory.getLogger(SelectItemDictionaryCache.class);
+    private static final SelectItemDictionaryCache INSTANCE = new SelectItemDictionaryCache();
+    /**
+     * 默认的选项签名检查间隔，单位秒
+     */
+    public static final int DEFAULT_CHECK_INTERVAL_SECONDS = 60;
+    private static final String INVALIDATION_KEY_PREFIX = "select_item:";
+    private final ConcurrentHashMap<Integer, Entry> ownSelectors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Entry> publicSelectors = new ConcurrentHashMap<>();
+    /**
+     * 选项签名的检查间隔，单位毫秒，为 0 表示未开启缓存
+     */
+    private volatile long checkIntervalMillis;
+
+    private SelectItemDictionaryCache() {
+        CacheUtil.addInvalidationListener(this::onInvalidate);
+    }
+
+    public static SelectItemDictionaryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 使用默认检查间隔开启缓存
+     */
+    public void enable() {
+        enable(DEFAULT_CHECK_INTERVAL_SECONDS);
+    }
+
+    /**
+     * 开启缓存
+     *
+     * @param checkIntervalSeconds 检查选项签名的间隔，单位秒
+     */
+    public void enable(int checkIntervalSeconds) {
+        if (checkIntervalSeconds < 1) {
+            throw new IllegalArgumentException("[checkIntervalSeconds] 必需大于 0");
+        }
+        checkIntervalMillis = checkIntervalSeconds * 1000L;
+    }
+
+    /**
+     * 关闭缓存并清空已缓存的字典，之后每次调用都查询数据库
+     */
+    public void disable() {
+        checkIntervalMillis = 0;
+        ownSelectors.clear();
+        publicSelectors.clear();
+    }
+
+    public boolean isEnabled() {
+        return checkIntervalMillis > 0;
+    }
+
+    /**
+     * 获取字段的选项字典，根据字段是否为公共选择框自动选择
+     *
+     * @param fieldId   字段id，对应 workflow_billfield 表的id
+     * @param recordSet recordSet
+     * @return 选项字典
+     */
+    public SelectItemDictionary get(int fieldId, RecordSet recordSet) {
+        FieldInfo field = getFieldInfo(fieldId, recordSet);
+        return field.isPublicSelector() ? getPublicSelector(fieldId, recordSet) : getOwnSelector(fieldId, recordSet);
+    }
+
+    /**
+     * 获取独立选择框的选项字典，选项来自 workflow_selectitem
+     *
+     * @param fieldId   字段id，对应 workflow_billfield 表的id
+     * @param recordSet recordSet
+     * @return 选项字典
+     */
+    public SelectItemDictionary getOwnSelector(int fieldId, RecordSet recordSet) {
+        return get(ownSelectors, fieldId, () -> loadOwnSelector(fieldId, recordSet));
+    }
+
+    /**
+     * 获取公共选择框的选项字典，选项来自 mode_selectitempagedetail，选项值为按id排序后的序号
+     *
+     * @param fieldId   字段id，对应 workflow_billfield 表的id
+     * @param recordSet recordSet
+     * @return 选项字典，找不到公共选择框时为空字典
+     */
+    public SelectItemDictionary getPublicSelector(int fieldId, RecordSet recordSet) {
+        return get(publicSelectors, fieldId, () -> loadPublicSelector(fieldId, recordSet));
+    }
+
+    /**
+     * 字段选项被修改后失效字典，开启失效广播时其他节点也会失效
+     *
+     * @param fieldId 字段id
+     */
+    public void invalidate(int fieldId) {
+        CacheUtil.deleteLocalCacheByPrefix(INVALIDATION_KEY_PREFIX + fieldId + ":");
+    }
+
+    /**
+     * 失效所有字典，开启失效广播时其他节点也会失效
+     */
+    public void invalidateAll() {
+        CacheUtil.deleteLocalCacheByPrefix(INVALIDATION_KEY_PREFIX);
+    }
+
+    private SelectItemDictionary get(ConcurrentHashMap<Integer, Entry> entries, int fieldId,
+                                     Supplier<LoadedOptions> loader) {
+        long interval = checkIntervalMillis;
+        if (interval == 0) {
+            return loader.get().dictionary;
+        }
+        Entry entry = entries.get(fieldId);
+        long now = System.currentTimeMillis();
+        if (entry != null && now < entry.checkTime + interval) {
+            return entry.dictionary;
+        }
+        LoadedOptions loaded = loader.get();
+        if (entry != null && entry.signature.equals(loaded.signature)) {
+            entry.checkTime = now;
+            return entry.dictionary;
+        }
+        entries.put(fieldId, new Entry(loaded.dictionary, loaded.signature, now));
+        return loaded.dictionary;
+    }
+
+    private void onInvalidate(String key, boolean prefix) {
+        if (!prefix || !key.startsWith(INVALIDATION_KEY_PREFIX)) {
+            return;
+        }
+        String fieldId = StrUtil.removeSuffix(key.substring(INVALIDATION_KEY_PREFIX.length()), ":");
+        if (fieldId.isEmpty()) {
+            ownSelectors.clear();
+            publicSelectors.clear();
+            return;
+        }
+        try {
+            Integer id = Integer.valueOf(fieldId);
+            ownSelectors.remove(id);
+            publicSelectors.remove(id);
+        } catch (NumberFormatException e) {
+            log.warn("无效的选项字典失效key：" + key);
+        }
+    }
+
+    private static LoadedOptions loadOwnSelector(int fieldId, RecordSet recordSet) {
+        String sql = "select id,selectvalue,selectname from workflow_selectitem where fieldid=? order by selectvalue";
+        if (!recordSet.executeQuery(sql, fieldId)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: [" + fieldId + "]", sql);
+        }
+        List<Integer> values = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        OptionSignature signature = new OptionSignature(String.valueOf(fieldId));
+        while (recordSet.next()) {
+            int value = recordSet.getInt("selectvalue");
+            String name = recordSet.getString("selectname");
+            values.add(value);
+            names.add(name);
+            signature.add(recordSet.getInt("id"), value, name);
+        }
+        int[] valueArray = new int[values.size()];
+        for (int i = 0; i < valueArray.length; i++) {
+            valueArray[i] = values.get(i);
+        }
+        return new LoadedOptions(new SelectItemDictionary(valueArray, names.toArray(new String[0])), signature);
+    }
+
+    private static LoadedOptions loadPublicSelector(int fieldId, RecordSet recordSet) {
+        String selectorId = getFieldInfo(fieldId, recordSet).getPubChoiceId();
+        OptionSignature signature = new OptionSignature(selectorId);
+        if (StrUtil.isEmpty(selectorId)) {
+            log.error("找不到公共选择框id，fieldId：" + fieldId);
+            return new LoadedOptions(SelectItemDictionary.empty(), signature);
+        }
+        String sql = "SELECT id,name from mode_selectitempagedetail where mainid=? ORDER BY id ASC";
+        if (!recordSet.executeQuery(sql, selectorId)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: [" + selectorId + "]", sql);
+        }
+        List<String> names = new ArrayList<>();
+        while (recordSet.next()) {
+            String name = recordSet.getString("name");
+            signature.add(recordSet.getInt("id"), names.size(), name);
+            names.add(name);
+        }
+        return new LoadedOptions(SelectItemDictionary.ofSequence(names.toArray(new String[0])), signature);
+    }
+
+    private static FieldInfo getFieldInfo(int fieldId, RecordSet recordSet) {
+        FormFieldMeta meta = getFieldMeta(fieldId);
+        if (meta != null) {
+            return new FieldInfo(meta.getSelectItemType(), meta.getPubChoiceId());
+        }
+        recordSet.executeQuery("select selectitemtype,pubchoiceid from workflow_billfield where id=?", fieldId);
+        recordSet.next();
+        return new FieldInfo(recordSet.getString("selectitemtype"), recordSet.getString("pubchoiceid"));
+    }
+
+    @Nullable
+    private static FormFieldMeta getFieldMeta(int fieldId) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        return metadata == null ? null : metadata.getField(fieldId);
+    }
+
+    private static final class FieldInfo {
+        private final String selectItemType;
+        private final String pubChoiceId;
+
+        FieldInfo(String selectItemType, String pubChoiceId) {
+            this.selectItemType = selectItemType;
+            this.pubChoiceId = pubChoiceId;
+        }
+
+        boolean isPublicSelector() {
+            return "1".equals(selectItemType);
+        }
+
+        String getPubChoiceId() {
+            return pubChoiceId;
+        }
+    }
+
+    /**
+     * 选项行的签名，由选项来源（字段id或公共选择框id）、行数、最大id和选项值、名称的校验和组成，
+     * 修改选项名称也会改变签名
+     */
+    @Data
+    private static final class OptionSignature {
+        private final String source;
+        private int count;
+        private int maxId = Integer.MIN_VALUE;
+        private long checksum;
+
+        OptionSignature(@Nullable String source) {
+            this.source = StrUtil.nullToEmpty(source);
+        }
+
+        void add(int id, int value, @Nullable String name) {
+            count++;
+            maxId = Math.max(maxId, id);
+            checksum = checksum * 31 + id;
+            checksum = checksum * 31 + value;
+            checksum = checksum * 31 + StrUtil.nullToEmpty(name).hashCode();
+        }
+    }
+
+    private static final class LoadedOptions {
+        private final SelectItemDictionary dictionary;
+        private final OptionSignature signature;
+
+        LoadedOptions(SelectItemDictionary dictionary, OptionSignature signature) {
+            this.dictionary = dictionary;
+            this.signature = signature;
+        }
+    }
+
+    private static final class Entry {
+        private final SelectItemDictionary dictionary;
+        private final OptionSignature signature;
+        /**
+         * 最后一次确认签名的时间
+         */
+        private volatile long checkTime;
+
+        Entry(SelectItemDictionary dictionary, OptionSignature signature, long checkTime) {
+            this.dictionary = dictionary;
+            this.signature = signature;
+            this.checkTime = checkTime;
+        }
+    }
+}
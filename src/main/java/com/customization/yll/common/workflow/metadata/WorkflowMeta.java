@@ -0,0 +1,21 @@
+package com.customization.yll.common.workflow.metadata;
+
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 流程基本信息，对应 workflow_base 表
+ * @date 2026/10/17
+ **/
+@Data
+public class WorkflowMeta {
+    private final int id;
+    /**
+     * 表单id，对应 workflow_bill 表的id
+     */
+    private final int formId;
+    /**
+     * 是否为新表单（isbill=1）
+     */
+    private final boolean bill;
+}
@@ -0,0 +1,206 @@
+package com.customization.yll.common.workflow.metadata;
+
+import cn.hutool.core.collection.CollUtil;
+import com.customization.yll.common.cache.AbstractSnapshotRegistry;
+import com.customization.yll.common.cache.TableSignature;
+import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.util.SqlUtil;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author 姚礼林
+ * @desc 流程表单元数据注册表，一次性加载所有流程、表单和字段定义（workflow_base、workflow_bill、workflow_billfield），
+ * {@link com.customization.yll.common.util.WorkflowUtil}、{@link com.customization.yll.common.util.FormUtil}、
+ * {@link com.customization.yll.common.util.FieldUtil} 开启后优先从这里读取，找不到时再查询数据库。<br>
+ * 后台按间隔比较三张表的行数和id范围，只有新增时只加载新增行涉及的表单，有删除时重新加载全部。
+ * 修改已有记录（例如修改字段名称、字段类型、显示名称或流程的表单）无法通过行数和id发现，
+ * 因此默认每 {@link #FULL_RELOAD_SECONDS} 秒全量重新加载一次，修改后需要立即生效时调用 {@link #invalidateForm(int)}
+ * @date 2026/10/17
+ **/
+public class WorkflowMetadataRegistry extends AbstractSnapshotRegistry<WorkflowMetadataSnapshot> {
+    private static final WorkflowMetadataRegistry INSTANCE = new WorkflowMetadataRegistry();
+    /**
+     * 默认全量重新加载的间隔，单位秒
+     */
+    public static final int FULL_RELOAD_SECONDS = 600;
+    private static final String FORM_KEY_PREFIX = "form:";
+    private static final int IN_CLAUSE_SIZE = 500;
+    private static final String WORKFLOW_SQL = "select id,formid,isbill from workflow_base";
+    private static final String FORM_SQL = "select id,tablename from workflow_bill";
+    private static final String FIELD_SQL = "select f.id,f.billid,f.fieldname,f.detailtable,f.fieldhtmltype,f.type," +
+            "f.selectitemtype,f.pubchoiceid,h.labelname from workflow_billfield f " +
+            "left join htmllabelinfo h on f.fieldlabel=h.indexid and h.languageid=7";
+
+    private WorkflowMetadataRegistry() {
+        super("WorkflowMetadata");
+    }
+
+    public static WorkflowMetadataRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 开启注册表，并每 {@link #FULL_RELOAD_SECONDS} 秒全量重新加载
+     *
+     * @param checkIntervalSeconds 检查数据变化的间隔，单位秒
+     */
+    @Override
+    public void enable(int checkIntervalSeconds) {
+        enable(checkIntervalSeconds, FULL_RELOAD_SECONDS);
+    }
+
+    /**
+     * 表单被修改后重新加载该表单，开启失效广播时其他节点也会重新加载
+     *
+     * @param formId 表单id，对应 workflow_bill 表的id
+     */
+    public void invalidateForm(int formId) {
+        invalidate(FORM_KEY_PREFIX + formId);
+    }
+
+    @Override
+    protected WorkflowMetadataSnapshot loadAll() {
+        RecordSet recordSet = new RecordSet();
+        TableSignature workflowSignature = TableSignature.of("workflow_base", recordSet);
+        TableSignature formSignature = TableSignature.of("workflow_bill", recordSet);
+        TableSignature fieldSignature = TableSignature.of("workflow_billfield", recordSet);
+        Map<Integer, WorkflowMeta> workflows = new HashMap<>(1024);
+        for (WorkflowMeta workflow : queryWorkflows(WORKFLOW_SQL, recordSet)) {
+            workflows.put(workflow.getId(), workflow);
+        }
+        Map<Integer, FormMeta> forms = new HashMap<>(1024);
+        for (FormMeta form : queryForms(null, recordSet)) {
+            forms.put(form.getId(), form);
+        }
+        return new WorkflowMetadataSnapshot(workflows, forms, workflowSignature, formSignature, fieldSignature);
+    }
+
+    @Nullable
+    @Override
+    protected WorkflowMetadataSnapshot checkForChanges(WorkflowMetadataSnapshot current) {
+        RecordSet recordSet = new RecordSet();
+        TableSignature workflowSignature = TableSignature.of("workflow_base", recordSet);
+        TableSignature formSignature = TableSignature.of("workflow_bill", recordSet);
+        TableSignature fieldSignature = TableSignature.of("workflow_billfield", recordSet);
+        if (workflowSignature.equals(current.getWorkflowSignature())
+                && formSignature.equals(current.getFormSignature())
+                && fieldSignature.equals(current.getFieldSignature())) {
+            return null;
+        }
+        List<WorkflowMeta> newWorkflows = queryWorkflows(WORKFLOW_SQL + " where id>?", recordSet,
+                current.getWorkflowSignature().getMaxId());
+        // 自定义表单的 id 为递减的负数，新增表单的 id 小于原最小id
+        List<Integer> newFormIds = queryIds("select id from workflow_bill where id<? or id>?", recordSet,
+                current.getFormSignature().getMinId(), current.getFormSignature().getMaxId());
+        List<Integer> newFieldFormIds = queryIds("select billid from workflow_billfield where id>?", recordSet,
+                current.getFieldSignature().getMaxId());
+        if (!workflowSignature.isAppendOnly(current.getWorkflowSignature(), newWorkflows.size())
+                || !formSignature.isExtendedOnly(current.getFormSignature(), newFormIds.size())
+                || !fieldSignature.isAppendOnly(current.getFieldSignature(), newFieldFormIds.size())) {
+            log.info("流程表单元数据有删除，重新加载全部");
+            return loadAll();
+        }
+        Set<Integer> changedFormIds = new LinkedHashSet<>(newFormIds);
+        changedFormIds.addAll(newFieldFormIds);
+        List<FormMeta> changedForms = queryForms(changedFormIds, recordSet);
+        log.info("流程表单元数据增量加载，新增流程：" + newWorkflows.size() + "，变化表单：" + changedForms.size());
+        return current.with(newWorkflows, changedForms, workflowSignature, formSignature, fieldSignature);
+    }
+
+    @Override
+    protected WorkflowMetadataSnapshot reload(WorkflowMetadataSnapshot current, String subKey) {
+        if (!subKey.startsWith(FORM_KEY_PREFIX)) {
+            return loadAll();
+        }
+        int formId = Integer.parseInt(subKey.substring(FORM_KEY_PREFIX.length()));
+        RecordSet recordSet = new RecordSet();
+        List<WorkflowMeta> workflows = queryWorkflows(WORKFLOW_SQL + " where formid=?", recordSet, formId);
+        List<FormMeta> forms = queryForms(Collections.singleton(formId), recordSet);
+        return current.with(workflows, forms, current.getWorkflowSignature(), current.getFormSignature(),
+                current.getFieldSignature());
+    }
+
+    private static List<WorkflowMeta> queryWorkflows(String sql, RecordSet recordSet, Object... params) {
+        execute(sql, recordSet, params);
+        List<WorkflowMeta> result = new ArrayList<>();
+        while (recordSet.next()) {
+            result.add(new WorkflowMeta(recordSet.getInt("id"), recordSet.getInt("formid"),
+                    "1".equals(recordSet.getString("isbill"))));
+        }
+        return result;
+    }
+
+    private static List<Integer> queryIds(String sql, RecordSet recordSet, Object... params) {
+        execute(sql, recordSet, params);
+        List<Integer> result = new ArrayList<>();
+        while (recordSet.next()) {
+            result.add(recordSet.getInt(1));
+        }
+        return result;
+    }
+
+    /**
+     * 查询表单及其字段
+     *
+     * @param formIds 表单id，为 null 时查询全部
+     */
+    private static List<FormMeta> queryForms(@Nullable Collection<Integer> formIds, RecordSet recordSet) {
+        Map<Integer, String> tableNames = new HashMap<>(formIds == null ? 1024 : formIds.size() * 2);
+        Map<Integer, List<FormFieldMeta>> fields = new HashMap<>(formIds == null ? 1024 : formIds.size() * 2);
+        if (formIds == null) {
+            readTableNames(FORM_SQL, recordSet, tableNames);
+            readFields(FIELD_SQL, recordSet, fields);
+        } else {
+            for (List<Integer> ids : CollUtil.split(formIds, IN_CLAUSE_SIZE)) {
+                String placeholders = SqlUtil.buildInClausePlaceholders(ids.size());
+                Object[] params = ids.toArray();
+                readTableNames(FORM_SQL + " where id in (" + placeholders + ")", recordSet, tableNames, params);
+                readFields(FIELD_SQL + " where f.billid in (" + placeholders + ")", recordSet, fields, params);
+            }
+        }
+        List<FormMeta> result = new ArrayList<>(tableNames.size());
+        for (Map.Entry<Integer, String> entry : tableNames.entrySet()) {
+            List<FormFieldMeta> formFields = fields.getOrDefault(entry.getKey(), Collections.emptyList());
+            result.add(new FormMeta(entry.getKey(), entry.getValue(), formFields));
+        }
+        return result;
+    }
+
+    private static void readTableNames(String sql, RecordSet recordSet, Map<Integer, String> tableNames,
+                                       Object... params) {
+        execute(sql, recordSet, params);
+        while (recordSet.next()) {
+            tableNames.put(recordSet.getInt("id"), recordSet.getString("tablename"));
+        }
+    }
+
+    private static void readFields(String sql, RecordSet recordSet, Map<Integer, List<FormFieldMeta>> fields,
+                                   Object... params) {
+        execute(sql, recordSet, params);
+        while (recordSet.next()) {
+            FormFieldMeta field = new FormFieldMeta(recordSet.getInt("id"), recordSet.getInt("billid"),
+                    recordSet.getString("fieldname"), recordSet.getString("detailtable"),
+                    recordSet.getString("fieldhtmltype"), recordSet.getString("type"),
+                    recordSet.getString("selectitemtype"), recordSet.getString("pubchoiceid"),
+                    recordSet.getString("labelname"));
+            fields.computeIfAbsent(field.getBillId(), k -> new ArrayList<>()).add(field);
+        }
+    }
+
+    private static void execute(String sql, RecordSet recordSet, Object... params) {
+        if (!recordSet.executeQuery(sql, params)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + sql + "，params: " + Arrays.toString(params), sql);
+        }
+    }
+}
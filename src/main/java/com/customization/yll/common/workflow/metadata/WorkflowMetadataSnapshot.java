@@ -0,0 +1,146 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.cache.TableSignature;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 流程表单元数据快照，创建后不可修改，按流程id、表单id、表名、字段id建立索引
+ * @date 2026/10/17
+ **/
+public final class WorkflowMetadataSnapshot {
+    private final Map<Integer, WorkflowMeta> workflows;
+    private final Map<Integer, FormMeta> forms;
+    private final Map<String, FormMeta> formsByTableName;
+    private final Map<Integer, FormFieldMeta> fields;
+    private final Map<Integer, List<Integer>> workflowIdsByFormId;
+    private final TableSignature workflowSignature;
+    private final TableSignature formSignature;
+    private final TableSignature fieldSignature;
+
+    WorkflowMetadataSnapshot(Map<Integer, WorkflowMeta> workflows, Map<Integer, FormMeta> forms,
+                             TableSignature workflowSignature, TableSignature formSignature,
+                             TableSignature fieldSignature) {
+        this.workflows = Collections.unmodifiableMap(workflows);
+        this.forms = Collections.unmodifiableMap(forms);
+        Map<String, FormMeta> byTableName = new HashMap<>(Math.max(16, forms.size() * 2));
+        int fieldCount = 0;
+        for (FormMeta form : forms.values()) {
+            byTableName.put(form.getTableName().toLowerCase(), form);
+            fieldCount += form.getFields().size();
+        }
+        Map<Integer, FormFieldMeta> byFieldId = new HashMap<>(Math.max(16, fieldCount * 2));
+        for (FormMeta form : forms.values()) {
+            for (FormFieldMeta field : form.getFields()) {
+                byFieldId.put(field.getId(), field);
+            }
+        }
+        Map<Integer, List<Integer>> byFormId = new HashMap<>(Math.max(16, forms.size() * 2));
+        for (WorkflowMeta workflow : workflows.values()) {
+            byFormId.computeIfAbsent(workflow.getFormId(), k -> new ArrayList<>()).add(workflow.getId());
+        }
+        for (List<Integer> workflowIds : byFormId.values()) {
+            Collections.sort(workflowIds);
+        }
+        this.workflowIdsByFormId = byFormId;
+        this.formsByTableName = byTableName;
+        this.fields = byFieldId;
+        this.workflowSignature = workflowSignature;
+        this.formSignature = formSignature;
+        this.fieldSignature = fieldSignature;
+    }
+
+    @Nullable
+    public WorkflowMeta getWorkflow(int workflowId) {
+        return workflows.get(workflowId);
+    }
+
+    @Nullable
+    public FormMeta getForm(int formId) {
+        return forms.get(formId);
+    }
+
+    /**
+     * 根据表名获取表单，不区分大小写
+     *
+     * @param tableName 表单主表名
+     * @return 表单信息，不存在返回 null
+     */
+    @Nullable
+    public FormMeta getFormByTableName(String tableName) {
+        return formsByTableName.get(tableName.toLowerCase());
+    }
+
+    /**
+     * 获取流程使用的表单
+     *
+     * @param workflowId 流程id
+     * @return 表单信息，不存在返回 null
+     */
+    @Nullable
+    public FormMeta getWorkflowForm(int workflowId) {
+        WorkflowMeta workflow = workflows.get(workflowId);
+        return workflow == null ? null : forms.get(workflow.getFormId());
+    }
+
+    /**
+     * 获取使用表单的所有流程（包括所有流程版本）
+     *
+     * @param formId 表单id
+     * @return 流程id，按id升序，没有流程时返回空列表
+     */
+    public List<Integer> getWorkflowIdsByFormId(int formId) {
+        List<Integer> workflowIds = workflowIdsByFormId.get(formId);
+        return workflowIds == null ? Collections.emptyList() : Collections.unmodifiableList(workflowIds);
+    }
+
+    @Nullable
+    public FormFieldMeta getField(int fieldId) {
+        return fields.get(fieldId);
+    }
+
+    public int getFormCount() {
+        return forms.size();
+    }
+
+    public int getFieldCount() {
+        return fields.size();
+    }
+
+    TableSignature getWorkflowSignature() {
+        return workflowSignature;
+    }
+
+    TableSignature getFormSignature() {
+        return formSignature;
+    }
+
+    TableSignature getFieldSignature() {
+        return fieldSignature;
+    }
+
+    /**
+     * 替换部分流程和表单，返回新快照
+     */
+    WorkflowMetadataSnapshot with(Collection<WorkflowMeta> changedWorkflows, Collection<FormMeta> changedForms,
+                                  TableSignature workflowSignature, TableSignature formSignature,
+                                  TableSignature fieldSignature) {
+        Map<Integer, WorkflowMeta> newWorkflows = new HashMap<>(workflows);
+        for (WorkflowMeta workflow : changedWorkflows) {
+            newWorkflows.put(workflow.getId(), workflow);
+        }
+        Map<Integer, FormMeta> newForms = new HashMap<>(forms);
+        for (FormMeta form : changedForms) {
+            newForms.put(form.getId(), form);
+        }
+        return new WorkflowMetadataSnapshot(newWorkflows, newForms, workflowSignature, formSignature,
+                fieldSignature);
+    }
+}
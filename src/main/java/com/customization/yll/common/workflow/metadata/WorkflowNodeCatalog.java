@@ -0,0 +1,80 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author 姚礼林
+ * @desc 流程节点目录，一个流程的所有节点，按节点id排序，按节点id和节点名称建立索引。创建后不可修改
+ * @date 2026/10/17
+ **/
+public final class WorkflowNodeCatalog {
+    private static final String CREATE_NODE_TYPE = "0";
+    private final int workflowId;
+    private final List<WorkflowNodeMeta> nodes;
+    private final Map<Integer, WorkflowNodeMeta> nodesById;
+    private final Map<String, WorkflowNodeMeta> nodesByName;
+    @Nullable
+    private final WorkflowNodeMeta createNode;
+
+    /**
+     * @param workflowId 流程id
+     * @param nodes      流程的所有节点，按节点id排序
+     */
+    public WorkflowNodeCatalog(int workflowId, List<WorkflowNodeMeta> nodes) {
+        this.workflowId = workflowId;
+        this.nodes = Collections.unmodifiableList(nodes);
+        Map<Integer, WorkflowNodeMeta> byId = new HashMap<>(Math.max(16, nodes.size() * 2));
+        Map<String, WorkflowNodeMeta> byName = new HashMap<>(Math.max(16, nodes.size() * 2));
+        WorkflowNodeMeta create = null;
+        for (WorkflowNodeMeta node : nodes) {
+            byId.put(node.getId(), node);
+            // 节点名称重复时取 id 最小的节点
+            byName.putIfAbsent(node.getNodeName(), node);
+            if (create == null && CREATE_NODE_TYPE.equals(node.getNodeType())) {
+                create = node;
+            }
+        }
+        this.nodesById = byId;
+        this.nodesByName = byName;
+        this.createNode = create;
+    }
+
+    public int getWorkflowId() {
+        return workflowId;
+    }
+
+    public List<WorkflowNodeMeta> getNodes() {
+        return nodes;
+    }
+
+    @Nullable
+    public WorkflowNodeMeta getNode(int nodeId) {
+        return nodesById.get(nodeId);
+    }
+
+    /**
+     * 根据节点名称获取节点，名称区分大小写
+     *
+     * @param nodeName 节点名称
+     * @return 节点信息，名称重复时返回 id 最小的节点，不存在返回 null
+     */
+    @Nullable
+    public WorkflowNodeMeta getNodeByName(String nodeName) {
+        return nodesByName.get(nodeName);
+    }
+
+    /**
+     * 获取创建节点
+     *
+     * @return 创建节点，不存在返回 null
+     */
+    @Nullable
+    public WorkflowNodeMeta getCreateNode() {
+        return createNode;
+    }
+}
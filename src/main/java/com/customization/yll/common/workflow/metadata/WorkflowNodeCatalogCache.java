@@ -0,0 +1,202 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.exception.SqlExecuteException;
+import com.customization.yll.common.util.CacheUtil;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author 姚礼林
+ * @desc 流程节点目录缓存，每个流程的节点一次查询加载。<br>
+ * 默认不缓存，每次调用都查询数据库；调用 {@link #enable(int)} 开启后缓存在本节点内存中，
+ * 超过检查间隔后再次使用时重新加载，节点名称、类型等修改最多延迟一个检查间隔生效。
+ * 按名称找不到节点时调用方可以通过 {@link #reload(int, RecordSet)} 立即重新加载，流程设计器保存后也可以调用
+ * {@link #invalidate(int)} 立即失效
+ * @date 2026/10/17
+ **/
+public class WorkflowNodeCatalogCache {
+    private static final Logger log = LoggerFactory.getLogger(WorkflowNodeCatalogCache.class);
+    private static final WorkflowNodeCatalogCache INSTANCE = new WorkflowNodeCatalogCache();
+    /**
+     * 默认的目录检查间隔，单位秒
+     */
+    public static final int DEFAULT_CHECK_INTERVAL_SECONDS = 60;
+    private static final String INVALIDATION_KEY_PREFIX = "workflow_node:";
+    private static final String NODE_SQL = "SELECT b.id,b.nodename,b.nodeattribute,n.nodetype " +
+            "FROM workflow_flownode n JOIN workflow_nodebase b ON n.nodeid=b.id " +
+            "WHERE n.workflowid=? ORDER BY b.id";
+    private final ConcurrentHashMap<Integer, Entry> catalogs = new ConcurrentHashMap<>();
+    /**
+     * 节点id到流程id，加载目录时记录，用于只知道节点id时找到目录
+     */
+    private final ConcurrentHashMap<Integer, Integer> nodeWorkflows = new ConcurrentHashMap<>();
+    /**
+     * 目录的检查间隔，单位毫秒，为 0 表示未开启缓存
+     */
+    private volatile long checkIntervalMillis;
+
+    private WorkflowNodeCatalogCache() {
+        CacheUtil.addInvalidationListener(this::onInvalidate);
+    }
+
+    public static WorkflowNodeCatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 使用默认检查间隔开启缓存
+     */
+    public void enable() {
+        enable(DEFAULT_CHECK_INTERVAL_SECONDS);
+    }
+
+    /**
+     * 开启缓存
+     *
+     * @param checkIntervalSeconds 目录的检查间隔，单位秒，超过后再次使用时重新加载
+     */
+    public void enable(int checkIntervalSeconds) {
+        if (checkIntervalSeconds < 1) {
+            throw new IllegalArgumentException("[checkIntervalSeconds] 必需大于 0");
+        }
+        checkIntervalMillis = checkIntervalSeconds * 1000L;
+    }
+
+    /**
+     * 关闭缓存并清空已缓存的目录，之后每次调用都查询数据库
+     */
+    public void disable() {
+        checkIntervalMillis = 0;
+        catalogs.clear();
+        nodeWorkflows.clear();
+    }
+
+    public boolean isEnabled() {
+        return checkIntervalMillis > 0;
+    }
+
+    /**
+     * 获取流程节点目录，未开启缓存时每次查询数据库
+     *
+     * @param workflowId 流程id
+     * @param recordSet  recordSet
+     * @return 节点目录，流程没有节点时为空目录
+     */
+    public WorkflowNodeCatalog get(int workflowId, RecordSet recordSet) {
+        long interval = checkIntervalMillis;
+        if (interval == 0) {
+            return load(workflowId, recordSet);
+        }
+        Entry entry = catalogs.get(workflowId);
+        if (entry != null && System.currentTimeMillis() < entry.loadTime + interval) {
+            return entry.catalog;
+        }
+        return reload(workflowId, recordSet);
+    }
+
+    /**
+     * 立即重新加载流程节点目录，开启缓存时替换本节点缓存的目录，用于按名称等找不到节点时确认数据库中的最新节点
+     *
+     * @param workflowId 流程id
+     * @param recordSet  recordSet
+     * @return 节点目录
+     */
+    public WorkflowNodeCatalog reload(int workflowId, RecordSet recordSet) {
+        WorkflowNodeCatalog catalog = load(workflowId, recordSet);
+        if (isEnabled()) {
+            catalogs.put(workflowId, new Entry(catalog, System.currentTimeMillis()));
+            for (WorkflowNodeMeta node : catalog.getNodes()) {
+                nodeWorkflows.put(node.getId(), workflowId);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * 根据节点id从缓存的目录获取节点，节点所在流程的目录没有加载过时先查询节点所属流程
+     *
+     * @param nodeId    节点id
+     * @param recordSet recordSet
+     * @return 节点信息，未开启缓存或节点不属于任何流程时返回 null
+     */
+    @Nullable
+    public WorkflowNodeMeta getNode(int nodeId, RecordSet recordSet) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Integer workflowId = nodeWorkflows.get(nodeId);
+        if (workflowId == null) {
+            recordSet.executeQuery("SELECT workflowid FROM workflow_flownode WHERE nodeid=?", nodeId);
+            if (!recordSet.next()) {
+                return null;
+            }
+            workflowId = recordSet.getInt("workflowid");
+        }
+        WorkflowNodeMeta node = get(workflowId, recordSet).getNode(nodeId);
+        return node != null ? node : reload(workflowId, recordSet).getNode(nodeId);
+    }
+
+    /**
+     * 流程节点被修改后失效目录，开启失效广播时其他节点也会失效
+     *
+     * @param workflowId 流程id
+     */
+    public void invalidate(int workflowId) {
+        CacheUtil.deleteLocalCacheByPrefix(INVALIDATION_KEY_PREFIX + workflowId + ":");
+    }
+
+    /**
+     * 失效所有目录，开启失效广播时其他节点也会失效
+     */
+    public void invalidateAll() {
+        CacheUtil.deleteLocalCacheByPrefix(INVALIDATION_KEY_PREFIX);
+    }
+
+    private void onInvalidate(String key, boolean prefix) {
+        if (!prefix || !key.startsWith(INVALIDATION_KEY_PREFIX)) {
+            return;
+        }
+        String workflowId = key.substring(INVALIDATION_KEY_PREFIX.length());
+        if (workflowId.endsWith(":")) {
+            workflowId = workflowId.substring(0, workflowId.length() - 1);
+        }
+        if (workflowId.isEmpty()) {
+            catalogs.clear();
+            nodeWorkflows.clear();
+            return;
+        }
+        try {
+            catalogs.remove(Integer.valueOf(workflowId));
+        } catch (NumberFormatException e) {
+            log.warn("无效的流程节点目录失效key：" + key);
+        }
+    }
+
+    private static WorkflowNodeCatalog load(int workflowId, RecordSet recordSet) {
+        if (!recordSet.executeQuery(NODE_SQL, workflowId)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + NODE_SQL + "，params: [" + workflowId + "]", NODE_SQL);
+        }
+        List<WorkflowNodeMeta> nodes = new ArrayList<>();
+        while (recordSet.next()) {
+            nodes.add(new WorkflowNodeMeta(recordSet.getInt("id"), workflowId, recordSet.getString("nodename"),
+                    recordSet.getString("nodeattribute"), recordSet.getString("nodetype")));
+        }
+        return new WorkflowNodeCatalog(workflowId, nodes);
+    }
+
+    private static final class Entry {
+        private final WorkflowNodeCatalog catalog;
+        private final long loadTime;
+
+        Entry(WorkflowNodeCatalog catalog, long loadTime) {
+            this.catalog = catalog;
+            this.loadTime = loadTime;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.bean.WorkflowNodeInfo;
+import lombok.Data;
+
+/**
+ * @author 姚礼林
+ * @desc 流程节点信息，对应 workflow_nodebase 和 workflow_flownode 表
+ * @date 2026/10/17
+ **/
+@Data
+public class WorkflowNodeMeta {
+    private final int id;
+    private final int workflowId;
+    private final String nodeName;
+    /**
+     * 节点属性，0：一般，1：分叉起始点，2：分叉中间点，3：通过分支数合并，4：指定通过分支合并
+     */
+    private final String attribute;
+    /**
+     * 节点类型，0：创建 1：审批 2：提交 3：归档 5：等待 6：自动处理
+     */
+    private final String nodeType;
+
+    /**
+     * 转换为节点信息对象，每次返回新对象，调用方可以修改
+     */
+    public WorkflowNodeInfo toNodeInfo() {
+        WorkflowNodeInfo nodeInfo = new WorkflowNodeInfo();
+        nodeInfo.setId(id);
+        nodeInfo.setNodeName(nodeName);
+        nodeInfo.setAttribute(attribute);
+        nodeInfo.setNodeType(nodeType);
+        return nodeInfo;
+    }
+}
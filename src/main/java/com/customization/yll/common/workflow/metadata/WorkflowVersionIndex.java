@@ -0,0 +1,139 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.collection.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author 姚礼林
+ * @desc 流程版本索引，流程id到同一流程所有版本的流程id（按id升序），同一流程的所有版本共用一个数组。
+ * 创建后不可修改
+ * @date 2026/10/17
+ **/
+public final class WorkflowVersionIndex {
+    private final IntObjectMap<int[]> families;
+    private final WorkflowVersionSignature signature;
+
+    private WorkflowVersionIndex(IntObjectMap<int[]> families, WorkflowVersionSignature signature) {
+        this.families = families;
+        this.signature = signature;
+    }
+
+    /**
+     * 构建版本索引，流程id与其生效版本id（workflow_base.activeversionid）相连的流程视为同一流程的不同版本，
+     * 连通的流程都属于同一流程
+     *
+     * @param workflowIds      流程id
+     * @param activeVersionIds 生效版本的流程id，与流程id一一对应，没有为 0
+     * @param signature        加载时的数据签名
+     * @return 版本索引
+     */
+    static WorkflowVersionIndex build(int[] workflowIds, int[] activeVersionIds, WorkflowVersionSignature signature) {
+        if (workflowIds.length != activeVersionIds.length) {
+            throw new IllegalArgumentException("流程id与生效版本id数量不一致");
+        }
+        int size = workflowIds.length;
+        int[] sortedIds = Arrays.copyOf(workflowIds, size);
+        Arrays.sort(sortedIds);
+        // 并查集，下标为 sortedIds 中的下标
+        int[] parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            int active = activeVersionIds[i] <= 0 ? -1 : Arrays.binarySearch(sortedIds, activeVersionIds[i]);
+            if (active >= 0) {
+                union(parents, Arrays.binarySearch(sortedIds, workflowIds[i]), active);
+            }
+        }
+        int[] familySizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            familySizes[find(parents, i)]++;
+        }
+        int[][] members = new int[size][];
+        int[] filled = new int[size];
+        IntObjectMap<int[]> families = new IntObjectMap<>(size);
+        // sortedIds 已升序，按顺序填入后每个流程的版本数组也是升序
+        for (int i = 0; i < size; i++) {
+            int root = find(parents, i);
+            if (members[root] == null) {
+                members[root] = new int[familySizes[root]];
+            }
+            members[root][filled[root]++] = sortedIds[i];
+            families.put(sortedIds[i], members[root]);
+        }
+        return new WorkflowVersionIndex(families, signature);
+    }
+
+    public boolean contains(int workflowId) {
+        return families.containsKey(workflowId);
+    }
+
+    /**
+     * 获取流程所有版本的流程id
+     *
+     * @param workflowId 流程id
+     * @return 所有版本的流程id，按id升序，包括自己；流程不存在时返回空列表
+     */
+    public List<Integer> getAllVersions(int workflowId) {
+        int[] family = families.get(workflowId);
+        if (family == null) {
+            return Collections.emptyList();
+        }
+        List<Integer> result = new ArrayList<>(family.length);
+        for (int id : family) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * 判断两个流程是否为同一流程的不同版本（或同一个流程）
+     *
+     * @param workflowId      流程id
+     * @param otherWorkflowId 另一个流程id
+     * @return 是否同一流程
+     */
+    public boolean isSameFamily(int workflowId, int otherWorkflowId) {
+        int[] family = families.get(workflowId);
+        return family != null && family == families.get(otherWorkflowId);
+    }
+
+    /**
+     * 判断当前流程是否为对比流程的当前版本或后面的版本
+     *
+     * @param compareWorkflowId 对比的流程id
+     * @param currentWorkflowId 当前流程id
+     * @return 是否为当前或后面的版本
+     */
+    public boolean isCurrentOrAfter(int compareWorkflowId, int currentWorkflowId) {
+        return compareWorkflowId <= currentWorkflowId && isSameFamily(currentWorkflowId, compareWorkflowId);
+    }
+
+    public int size() {
+        return families.size();
+    }
+
+    WorkflowVersionSignature getSignature() {
+        return signature;
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
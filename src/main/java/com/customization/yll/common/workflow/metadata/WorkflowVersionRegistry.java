@@ -0,0 +1,65 @@
+package com.customization.yll.common.workflow.metadata;
+
+import cn.hutool.core.convert.Convert;
+import com.customization.yll.common.cache.AbstractSnapshotRegistry;
+import com.customization.yll.common.exception.SqlExecuteException;
+import org.jetbrains.annotations.Nullable;
+import weaver.conn.RecordSet;
+
+import java.util.Arrays;
+
+/**
+ * @author 姚礼林
+ * @desc 流程版本注册表，一次性加载所有流程的版本关系（workflow_base 的 id、activeversionid），
+ * {@link com.customization.yll.common.util.WorkflowUtil} 和 {@link com.customization.yll.common.util.PropertiesUtil}
+ * 判断流程版本时开启后优先从这里读取，找不到流程时再通过 WorkflowVersion 查询。<br>
+ * 后台按间隔比较行数、最大id和最大生效版本id，发布新版本后整体重新加载（每个流程只有一行两个字段，数据量很小）。
+ * 切换生效版本到旧版本等无法通过签名发现的变化，请调用 {@link #refresh()}
+ * @date 2026/10/17
+ **/
+public class WorkflowVersionRegistry extends AbstractSnapshotRegistry<WorkflowVersionIndex> {
+    private static final WorkflowVersionRegistry INSTANCE = new WorkflowVersionRegistry();
+    private static final String VERSION_SQL = "select id,activeversionid from workflow_base";
+
+    private WorkflowVersionRegistry() {
+        super("WorkflowVersion");
+    }
+
+    public static WorkflowVersionRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected WorkflowVersionIndex loadAll() {
+        RecordSet recordSet = new RecordSet();
+        WorkflowVersionSignature signature = WorkflowVersionSignature.of(recordSet);
+        if (!recordSet.executeQuery(VERSION_SQL)) {
+            throw new SqlExecuteException("执行sql失败，sql: " + VERSION_SQL, VERSION_SQL);
+        }
+        int[] workflowIds = new int[Math.max(16, (int) signature.getCount())];
+        int[] activeVersionIds = new int[workflowIds.length];
+        int size = 0;
+        while (recordSet.next()) {
+            if (size == workflowIds.length) {
+                workflowIds = Arrays.copyOf(workflowIds, size * 2);
+                activeVersionIds = Arrays.copyOf(activeVersionIds, size * 2);
+            }
+            workflowIds[size] = recordSet.getInt("id");
+            activeVersionIds[size] = Convert.toInt(recordSet.getString("activeversionid"), 0);
+            size++;
+        }
+        return WorkflowVersionIndex.build(Arrays.copyOf(workflowIds, size), Arrays.copyOf(activeVersionIds, size),
+                signature);
+    }
+
+    @Nullable
+    @Override
+    protected WorkflowVersionIndex checkForChanges(WorkflowVersionIndex current) {
+        WorkflowVersionSignature signature = WorkflowVersionSignature.of(new RecordSet());
+        if (signature.equals(current.getSignature())) {
+            return null;
+        }
+        log.info("流程版本数据变化，重新加载");
+        return loadAll();
+    }
+}
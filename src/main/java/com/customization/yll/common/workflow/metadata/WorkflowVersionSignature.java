@@ -0,0 +1,28 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.exception.SqlExecuteException;
+import lombok.Data;
+import weaver.conn.RecordSet;
+
+/**
+ * @author 姚礼林
+ * @desc 流程版本数据签名，由 workflow_base 的行数、最大id和最大生效版本id组成，发布新版本时会新增流程，
+ * 同时生效版本id会变为新版本的id，签名随之变化
+ * @date 2026/10/17
+ **/
+@Data
+class WorkflowVersionSignature {
+    private final long count;
+    private final long maxId;
+    private final String maxActiveVersionId;
+
+    static WorkflowVersionSignature of(RecordSet recordSet) {
+        String sql = "select count(1) cnt, max(id) max_id, max(activeversionid) max_active_version_id " +
+                "from workflow_base";
+        if (!recordSet.executeQuery(sql) || !recordSet.next()) {
+            throw new SqlExecuteException("查询流程版本数据签名失败，sql: " + sql, sql);
+        }
+        return new WorkflowVersionSignature(recordSet.getInt("cnt"), recordSet.getInt("max_id"),
+                recordSet.getString("max_active_version_id"));
+    }
+}
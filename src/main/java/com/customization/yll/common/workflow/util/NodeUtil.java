@@ -1,5 +1,9 @@
 package com.customization.yll.common.workflow.util;
 
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataRegistry;
+import com.customization.yll.common.workflow.metadata.WorkflowMetadataSnapshot;
+import com.customization.yll.common.workflow.metadata.WorkflowNodeCatalogCache;
+import com.customization.yll.common.workflow.metadata.WorkflowNodeMeta;
 import lombok.experimental.UtilityClass;
 import weaver.conn.RecordSet;
 
@@ -9,27 +13,55 @@ import java.util.Optional;
 
 /**
  * @author 姚礼林
- * @desc 流程节点工具类
+ * @desc 流程节点工具类，开启 {@link WorkflowNodeCatalogCache} 后节点信息从缓存的节点目录读取，否则查询数据库
  * @date 2025/4/8
  **/
 @UtilityClass
 public class NodeUtil {
 
     public static String getNodeName(int nodeId, RecordSet recordSet) {
+        WorkflowNodeMeta node = WorkflowNodeCatalogCache.getInstance().getNode(nodeId, recordSet);
+        if (node != null) {
+            return node.getNodeName();
+        }
         recordSet.executeQuery("select nodename from workflow_nodebase where id=?", nodeId);
         recordSet.next();
         return recordSet.getString("nodename");
     }
 
-    public static Optional<Integer> getNodeId(int nodeName, int workflowId, RecordSet recordSet) {
+    /**
+     * 根据节点名称获取流程的节点id
+     * @param nodeName 节点名称
+     * @param workflowId 流程id
+     * @param recordSet recordSet
+     * @return 节点id，名称重复时返回 id 最小的节点
+     */
+    public static Optional<Integer> getNodeId(String nodeName, int workflowId, RecordSet recordSet) {
+        WorkflowNodeCatalogCache catalogCache = WorkflowNodeCatalogCache.getInstance();
+        if (catalogCache.isEnabled()) {
+            WorkflowNodeMeta node = catalogCache.get(workflowId, recordSet).getNodeByName(nodeName);
+            if (node == null) {
+                // 缓存的目录中找不到时可能是节点刚被修改名称，重新加载后再找一次
+                node = catalogCache.reload(workflowId, recordSet).getNodeByName(nodeName);
+            }
+            return node == null ? Optional.empty() : Optional.of(node.getId());
+        }
         recordSet.executeQuery("SELECT n.id from workflow_nodebase n join workflow_flownode f " +
-                "on f.nodeid = n.id where f.WORKFLOWID=? and n.nodename=?", workflowId, nodeName);
+                "on f.nodeid = n.id where f.WORKFLOWID=? and n.nodename=? order by n.id", workflowId, nodeName);
         if (!recordSet.next()) {
             return Optional.empty();
         }
         return Optional.of(recordSet.getInt("id"));
     }
 
+    /**
+     * @deprecated 节点名称应为字符串，请使用 {@link #getNodeId(String, int, RecordSet)}
+     */
+    @Deprecated
+    public static Optional<Integer> getNodeId(int nodeName, int workflowId, RecordSet recordSet) {
+        return getNodeId(String.valueOf(nodeName), workflowId, recordSet);
+    }
+
     /**
      * 根据节点名称获取所有流程版本的节点id
      * @param formId 表单id
@@ -38,13 +70,51 @@ public class NodeUtil {
      * @return 所有流程版本的节点id
      */
     public static List<Integer> getNodeListByNodeName(int formId,String nodeName,RecordSet recordSet) {
-        recordSet.executeQuery("SELECT n.id from workflow_nodebase n join workflow_flownode f " +
-                "on f.nodeid = n.id join workflow_base w on f.WORKFLOWID = w.id " +
-                "where w.formid=? and n.nodename=?", formId, nodeName);
         List<Integer> result = new ArrayList<>();
-        while (recordSet.next()) {
-            result.add(recordSet.getInt("id"));
+        WorkflowNodeCatalogCache catalogCache = WorkflowNodeCatalogCache.getInstance();
+        if (!catalogCache.isEnabled()) {
+            recordSet.executeQuery("SELECT n.id from workflow_nodebase n join workflow_flownode f " +
+                    "on f.nodeid = n.id join workflow_base w on f.WORKFLOWID = w.id " +
+                    "where w.formid=? and n.nodename=?", formId, nodeName);
+            while (recordSet.next()) {
+                result.add(recordSet.getInt("id"));
+            }
+            return result;
+        }
+        for (int workflowId : getWorkflowIdsByFormId(formId, recordSet)) {
+            addNodesByName(catalogCache.get(workflowId, recordSet).getNodes(), nodeName, result);
+        }
+        if (result.isEmpty()) {
+            // 找不到时可能是节点刚被修改名称或新增了流程版本，从数据库查询流程并重新加载目录后再找一次
+            for (int workflowId : queryWorkflowIdsByFormId(formId, recordSet)) {
+                addNodesByName(catalogCache.reload(workflowId, recordSet).getNodes(), nodeName, result);
+            }
         }
         return result;
     }
+
+    private static void addNodesByName(List<WorkflowNodeMeta> nodes, String nodeName, List<Integer> result) {
+        for (WorkflowNodeMeta node : nodes) {
+            if (nodeName.equals(node.getNodeName())) {
+                result.add(node.getId());
+            }
+        }
+    }
+
+    private static List<Integer> getWorkflowIdsByFormId(int formId, RecordSet recordSet) {
+        WorkflowMetadataSnapshot metadata = WorkflowMetadataRegistry.getInstance().getSnapshot();
+        if (metadata != null) {
+            return metadata.getWorkflowIdsByFormId(formId);
+        }
+        return queryWorkflowIdsByFormId(formId, recordSet);
+    }
+
+    private static List<Integer> queryWorkflowIdsByFormId(int formId, RecordSet recordSet) {
+        recordSet.executeQuery("select id from workflow_base where formid=? order by id", formId);
+        List<Integer> workflowIds = new ArrayList<>();
+        while (recordSet.next()) {
+            workflowIds.add(recordSet.getInt("id"));
+        }
+        return workflowIds;
+    }
 }
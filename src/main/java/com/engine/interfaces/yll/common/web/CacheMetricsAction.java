@@ -0,0 +1,76 @@
+package com.engine.interfaces.yll.common.web;
+
+import com.alibaba.fastjson.JSON;
+import com.customization.yll.common.cache.CacheMetricsSnapshot;
+import com.customization.yll.common.util.CacheUtil;
+import com.customization.yll.common.web.modal.vo.OpenApiResult;
+import weaver.hrm.HrmUserVarify;
+import weaver.hrm.User;
+import weaver.integration.logging.Logger;
+import weaver.integration.logging.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存统计接口，查看本节点 CacheUtil 各 key 前缀的命中率、淘汰次数和加载耗时，只允许系统管理员访问
+ * @date 2026/10/17
+ **/
+public class CacheMetricsAction {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    /**
+     * 获取缓存统计
+     * @return 各 key 前缀的统计
+     */
+    @GET
+    @Path("/")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getMetrics(@Context HttpServletRequest request, @Context HttpServletResponse response) {
+        if (!isAdmin(request, response)) {
+            return forbidden();
+        }
+        try {
+            List<CacheMetricsSnapshot> metrics = CacheUtil.getMetrics();
+            return JSON.toJSONString(OpenApiResult.success(metrics));
+        } catch (Exception e) {
+            log.error("获取缓存统计失败", e);
+            return JSON.toJSONString(OpenApiResult.failed("获取缓存统计失败，发生异常",
+                    Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+        }
+    }
+
+    /**
+     * 清空缓存统计
+     * @return 处理结果
+     */
+    @POST
+    @Path("/reset")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String reset(@Context HttpServletRequest request, @Context HttpServletResponse response) {
+        if (!isAdmin(request, response)) {
+            return forbidden();
+        }
+        CacheUtil.resetMetrics();
+        return JSON.toJSONString(OpenApiResult.success(null));
+    }
+
+    private static boolean isAdmin(HttpServletRequest request, HttpServletResponse response) {
+        User user = HrmUserVarify.getUser(request, response);
+        return user != null && user.isAdmin();
+    }
+
+    private static String forbidden() {
+        return JSON.toJSONString(OpenApiResult.failed("没有权限，只允许系统管理员访问",
+                Response.Status.FORBIDDEN.getStatusCode()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.customization.yll.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 缓存统计测试
+ * @date 2026/10/17
+ **/
+class CacheMetricsTest {
+
+    @Test
+    void prefixOf() {
+        assertEquals("config:", CacheMetrics.prefixOf("config:test:name"));
+        assertEquals("DEV_SERVER_*", CacheMetrics.prefixOf("DEV_SERVER_TOKEN"));
+        assertEquals("DEV_SERVER_*", CacheMetrics.prefixOf("DEV_SERVER_PUBLIC_KEY"));
+        assertEquals("A_*", CacheMetrics.prefixOf("A_B"));
+        assertEquals(CacheMetrics.OTHER_PREFIX, CacheMetrics.prefixOf("token"));
+    }
+
+    @Test
+    void groupByPrefixAndTier() {
+        CacheMetrics metrics = new CacheMetrics();
+        metrics.recordHit("config:a:1", CacheTier.REDIS);
+        metrics.recordHit("config:b:2", CacheTier.REDIS);
+        metrics.recordMiss("config:a:1", CacheTier.NEAR);
+        metrics.recordPut("DEV_SERVER_TOKEN", CacheTier.LOCAL);
+        metrics.recordEviction("DEV_SERVER_SECRET", CacheTier.LOCAL);
+        metrics.recordHit("token", CacheTier.LOCAL);
+
+        List<CacheMetricsSnapshot> snapshots = metrics.snapshot();
+        assertEquals(3, snapshots.size());
+        CacheMetricsSnapshot config = snapshots.get(0);
+        assertEquals("config:", config.getPrefix());
+        assertEquals(2, config.getTiers().get("REDIS").getHits());
+        assertEquals(1, config.getTiers().get("NEAR").getMisses());
+        assertNull(config.getTiers().get("LOCAL"));
+        CacheMetricsSnapshot devServer = snapshots.get(1);
+        assertEquals("DEV_SERVER_*", devServer.getPrefix());
+        assertEquals(1, devServer.getTiers().get("LOCAL").getPuts());
+        assertEquals(1, devServer.getTiers().get("LOCAL").getEvictions());
+        assertEquals(CacheMetrics.OTHER_PREFIX, snapshots.get(2).getPrefix());
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void loadLatency() {
+        CacheMetrics metrics = new CacheMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordLoad("config:a", i * 1000_000L, i != 100);
+        }
+        CacheLoadStats load = metrics.snapshot().get(0).getLoad();
+        assertEquals(100, load.getCount());
+        assertEquals(1, load.getFailures());
+        assertEquals(100, load.getMaxMillis(), 0.001);
+        // 每个桶的相对误差不超过 12.5%
+        assertEquals(50, load.getP50Millis(), 50 * 0.125);
+        assertEquals(99, load.getP99Millis(), 99 * 0.125);
+    }
+
+    @Test
+    void histogramBuckets() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            if (value < (1L << 40)) {
+                assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+                assertTrue(LatencyHistogram.upperBoundOf(index) - value <= value / 8 + 1);
+            }
+        }
+        assertEquals(LatencyHistogram.indexOf(Long.MAX_VALUE), LatencyHistogram.indexOf(1L << 50));
+    }
+}
@@ -0,0 +1,83 @@
+package com.customization.yll.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc redis 缓存值序列化测试
+ * @date 2026/10/17
+ **/
+class CacheValueSerializerTest {
+
+    @Test
+    void encodeString() throws IOException {
+        CacheValueSerializer serializer = new CacheValueSerializer();
+        byte[] data = serializer.encode("测试abc");
+        assertEquals(StringCacheCodec.ID, data[2]);
+        assertEquals("测试abc", serializer.decode(data));
+    }
+
+    @Test
+    void encodeLargeListWithCompression() throws IOException {
+        CacheValueSerializer serializer = new CacheValueSerializer();
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Map<String, String> row = new HashMap<>(4);
+            row.put("name", "张三" + i);
+            row.put("dept", "研发部");
+            rows.add(row);
+        }
+        byte[] data = serializer.encode(rows);
+        assertEquals(JdkCacheCodec.ID, data[2]);
+        assertEquals(1, data[3]);
+        assertEquals(rows, serializer.decode(data));
+        assertTrue(data.length < new JdkCacheCodec().encode(rows).length);
+    }
+
+    @Test
+    void decodeLegacyValue() throws IOException {
+        CacheValueSerializer serializer = new CacheValueSerializer();
+        Map<String, String> legacy = new HashMap<>(1);
+        legacy.put("a", "1");
+        assertSame(legacy, serializer.decode(legacy));
+        assertEquals("old", serializer.decode("old"));
+    }
+
+    @Test
+    void encodeNotSerializable() {
+        CacheValueSerializer serializer = new CacheValueSerializer();
+        assertThrows(IOException.class, () -> serializer.encode(new Object()));
+    }
+
+    @Test
+    void customCodec() throws IOException {
+        CacheValueSerializer serializer = new CacheValueSerializer();
+        serializer.setCodec(new CacheCodec() {
+            @Override
+            public byte id() {
+                return 20;
+            }
+
+            @Override
+            public byte[] encode(Object value) {
+                return value.toString().getBytes();
+            }
+
+            @Override
+            public Object decode(byte[] data) {
+                return Integer.valueOf(new String(data));
+            }
+        });
+        byte[] data = serializer.encode(12);
+        assertEquals(20, data[2]);
+        assertEquals(12, serializer.decode(data));
+    }
+}
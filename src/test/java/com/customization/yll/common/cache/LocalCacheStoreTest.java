@@ -0,0 +1,50 @@
+package com.customization.yll.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 本地缓存存储测试
+ * @date 2026/10/17
+ **/
+class LocalCacheStoreTest {
+
+    @Test
+    void expireOnRead() throws InterruptedException {
+        LocalCacheStore store = new LocalCacheStore();
+        store.put("a", "1", 1);
+        store.put("b", "2", null);
+        assertEquals("1", store.get("a"));
+        Thread.sleep(1100);
+        assertNull(store.get("a"));
+        assertFalse(store.containsKey("a"));
+        assertEquals("2", store.get("b"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void getRemainingSeconds() {
+        LocalCacheStore store = new LocalCacheStore();
+        store.put("a", "1", 60);
+        store.put("b", "2", null);
+        int remaining = store.getRemainingSeconds("a");
+        assertTrue(remaining > 58 && remaining <= 60);
+        assertEquals(-1, store.getRemainingSeconds("b"));
+        assertEquals(-1, store.getRemainingSeconds("c"));
+    }
+
+    @Test
+    void sweep() throws InterruptedException {
+        LocalCacheStore store = new LocalCacheStore();
+        store.put("a", "1", 1);
+        store.put("b", "2", 1);
+        store.put("c", "3", 60);
+        Thread.sleep(1100);
+        SweepResult result = store.sweep();
+        assertEquals(2, result.getEntries());
+        assertEquals(CacheSizeEstimator.estimate("1") * 2, result.getBytes());
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.customization.yll.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 本地近端缓存测试
+ * @date 2026/10/17
+ **/
+class NearCacheTest {
+
+    @Test
+    void putAndGet() {
+        NearCache cache = new NearCache(10, 1024 * 1024, 60);
+        cache.put("a", "1", null);
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        NearCache cache = new NearCache(2, 1024 * 1024, 60);
+        cache.put("a", "1", null);
+        cache.put("b", "2", null);
+        // 访问 a，使 b 成为最久未使用
+        cache.get("a");
+        cache.put("c", "3", null);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void evictByWeight() {
+        long weight = CacheSizeEstimator.estimate("1234567890");
+        NearCache cache = new NearCache(100, weight * 2, 60);
+        cache.put("a", "1234567890", null);
+        cache.put("b", "1234567890", null);
+        cache.put("c", "1234567890", null);
+        assertEquals(2, cache.size());
+        assertTrue(cache.weight() <= weight * 2);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void ttlCappedByL2() throws InterruptedException {
+        NearCache cache = new NearCache(10, 1024 * 1024, 60);
+        cache.put("a", "1", 1);
+        assertEquals("1", cache.get("a"));
+        Thread.sleep(1100);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void invalidate() {
+        NearCache cache = new NearCache(10, 1024 * 1024, 60);
+        cache.put("a", "1", null);
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,31 @@
+package com.customization.yll.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 数据表签名测试
+ * @date 2026/10/17
+ **/
+class TableSignatureTest {
+
+    @Test
+    void appendOnly() {
+        TableSignature old = new TableSignature(3, 1, 3);
+        assertTrue(new TableSignature(5, 1, 5).isAppendOnly(old, 2));
+        assertFalse(new TableSignature(4, 1, 5).isAppendOnly(old, 2));
+    }
+
+    @Test
+    void extendedOnly() {
+        TableSignature old = new TableSignature(3, -2, 7);
+        assertTrue(new TableSignature(4, -3, 7).isExtendedOnly(old, 1));
+        assertTrue(new TableSignature(5, -3, 8).isExtendedOnly(old, 2));
+        // 删除了一行，同时新增一行
+        assertFalse(new TableSignature(3, -3, 7).isExtendedOnly(old, 1));
+        // 删除了最小id的行
+        assertFalse(new TableSignature(2, -1, 7).isExtendedOnly(old, 0));
+    }
+}
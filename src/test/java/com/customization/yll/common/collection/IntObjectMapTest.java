@@ -0,0 +1,49 @@
+package com.customization.yll.common.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc int 为 key 的哈希表测试
+ * @date 2026/10/17
+ **/
+class IntObjectMapTest {
+
+    @Test
+    void putAndGet() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int i = -1000; i <= 1000; i++) {
+            assertNull(map.put(i, "v" + i));
+        }
+        assertEquals(2001, map.size());
+        assertEquals("v0", map.get(0));
+        assertEquals("v-1000", map.get(-1000));
+        assertEquals("v1000", map.put(1000, "new"));
+        assertEquals("new", map.get(1000));
+        assertEquals(2001, map.size());
+        assertNull(map.get(1001));
+        assertFalse(map.containsKey(1001));
+        assertTrue(map.containsKey(0));
+    }
+
+    @Test
+    void copyAndForEach() {
+        IntObjectMap<String> map = new IntObjectMap<>(2);
+        map.put(0, "a");
+        map.put(7, "b");
+        IntObjectMap<String> copy = map.copy();
+        copy.put(8, "c");
+        assertEquals(2, map.size());
+        assertNull(map.get(8));
+        Map<Integer, String> entries = new HashMap<>();
+        copy.forEach(entries::put);
+        assertEquals(3, entries.size());
+        assertEquals("a", entries.get(0));
+        assertEquals("c", entries.get(8));
+    }
+}
@@ -0,0 +1,72 @@
+package com.customization.yll.common.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 压缩 int 集合测试
+ * @date 2026/10/17
+ **/
+class RoaringIntSetTest {
+
+    @Test
+    void sparseValues() {
+        RoaringIntSet set = RoaringIntSet.of(new int[]{70000, 3, 3, 1, 65536, -1});
+        assertEquals(5, set.size());
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(65536));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(2));
+        assertFalse(set.contains(65537));
+        assertArrayEquals(new int[]{1, 3, 65536, 70000, -1}, set.toArray());
+    }
+
+    @Test
+    void denseBlockUsesBitmap() {
+        int[] values = new int[RoaringIntSet.ARRAY_MAX * 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 131072 + i * 3;
+        }
+        RoaringIntSet set = RoaringIntSet.of(values);
+        assertEquals(values.length, set.size());
+        assertTrue(set.contains(131072));
+        assertTrue(set.contains(131075));
+        assertFalse(set.contains(131073));
+        assertArrayEquals(values, set.toArray());
+    }
+
+    @Test
+    void matchesTreeSet() {
+        Random random = new Random(7);
+        int[] values = new int[20000];
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(200000);
+            expected.add(values[i]);
+        }
+        RoaringIntSet set = RoaringIntSet.of(values);
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < 200000; i++) {
+            assertEquals(expected.contains(i), set.contains(i));
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+    }
+
+    @Test
+    void filterAndWith() {
+        RoaringIntSet set = RoaringIntSet.of(new int[]{5, 1, 9});
+        assertArrayEquals(new int[]{9, 1}, set.filter(new int[]{9, 2, 1, 4}));
+        RoaringIntSet merged = set.with(new int[]{2, 5});
+        assertArrayEquals(new int[]{1, 2, 5, 9}, merged.toArray());
+        assertArrayEquals(new int[]{1, 5, 9}, set.toArray());
+        assertSame(set, set.with(new int[0]));
+        assertTrue(RoaringIntSet.of(new int[0]).isEmpty());
+        assertEquals(0, Arrays.stream(RoaringIntSet.empty().toArray()).count());
+    }
+}
@@ -0,0 +1,54 @@
+package com.customization.yll.common.hrm.directory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 组织树索引测试
+ * @date 2026/10/17
+ **/
+class OrgTreeTest {
+
+    /**
+     * 1 总部
+     * ├─ 2 研发部
+     * │  └─ 4 测试部
+     * └─ 3 财务部
+     * 5 独立部门（上级 99 不存在）
+     */
+    private final OrgTree tree = new OrgTree(new int[]{4, 1, 3, 2, 5}, new int[]{2, 0, 1, 1, 99},
+            new String[]{"测试部", "总部", "财务部", "研发部", "独立部门"});
+
+    @Test
+    void fullPath() {
+        assertEquals("总部/研发部/测试部", tree.getFullPath(4, "/"));
+        assertEquals("总部>财务部", tree.getFullPath(3, ">"));
+        assertEquals("独立部门", tree.getFullPath(5, "/"));
+        assertNull(tree.getFullPath(6, "/"));
+    }
+
+    @Test
+    void ancestor() {
+        assertTrue(tree.isDescendantOf(4, 1));
+        assertTrue(tree.isDescendantOf(4, 2));
+        assertFalse(tree.isDescendantOf(4, 3));
+        assertFalse(tree.isDescendantOf(1, 1));
+        assertFalse(tree.isDescendantOf(1, 4));
+        assertFalse(tree.isDescendantOf(5, 1));
+        assertEquals(2, tree.getDepth(4));
+        assertEquals(0, tree.getDepth(5));
+        assertEquals(Integer.valueOf(2), tree.getParentId(4));
+        assertNull(tree.getParentId(5));
+    }
+
+    @Test
+    void cycle() {
+        OrgTree cyclic = new OrgTree(new int[]{1, 2, 3}, new int[]{3, 1, 2}, new String[]{"甲", "乙", "丙"});
+        assertEquals(3, cyclic.size());
+        assertTrue(cyclic.isDescendantOf(3, 1));
+        assertNull(cyclic.getParentId(1));
+        assertEquals("甲/乙/丙", cyclic.getFullPath(3, "/"));
+    }
+}
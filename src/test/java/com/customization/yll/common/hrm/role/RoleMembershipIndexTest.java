@@ -0,0 +1,44 @@
+package com.customization.yll.common.hrm.role;
+
+import com.customization.yll.common.cache.TableSignature;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 角色成员索引测试
+ * @date 2026/10/17
+ **/
+class RoleMembershipIndexTest {
+
+    @Test
+    void buildAndQuery() {
+        RoleMembershipIndex index = RoleMembershipIndex.build(new int[]{2, 1, 2, 2, 0},
+                new int[]{10, 10, 11, 10, 0}, 4, new TableSignature(4, 1, 4));
+        assertTrue(index.isUserInRole(10, 1));
+        assertTrue(index.isUserInRole(11, 2));
+        assertFalse(index.isUserInRole(11, 1));
+        assertFalse(index.isUserInRole(10, 3));
+        assertArrayEquals(new int[]{1, 2}, index.getRoles(10));
+        assertArrayEquals(new int[0], index.getRoles(12));
+        assertArrayEquals(new int[]{11, 10}, index.filterUsersInRole(new int[]{11, 12, 10}, 2));
+        assertArrayEquals(new int[0], index.filterUsersInRole(new int[]{10}, 3));
+        assertEquals(2, index.getMembers(2).size());
+        assertEquals(2, index.getRoleCount());
+    }
+
+    @Test
+    void withMembersKeepsOriginal() {
+        RoleMembershipIndex index = RoleMembershipIndex.build(new int[]{1}, new int[]{10}, 1,
+                new TableSignature(1, 1, 1));
+        RoleMembershipIndex updated = index.withMembers(new int[]{3, 1, 1}, new int[]{10, 11, 10}, 3,
+                new TableSignature(4, 1, 4));
+        assertArrayEquals(new int[]{1, 3}, updated.getRoles(10));
+        assertArrayEquals(new int[]{1}, updated.getRoles(11));
+        assertArrayEquals(new int[]{10, 11}, updated.getMembers(1).toArray());
+        assertArrayEquals(new int[]{1}, index.getRoles(10));
+        assertFalse(index.isUserInRole(11, 1));
+        assertEquals(4, updated.getSignature().getCount());
+    }
+}
@@ -0,0 +1,33 @@
+package com.customization.yll.common.mode.conf;
+
+import com.customization.yll.common.exception.PropNotConfigureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 建模统一配置中心配置测试
+ * @date 2026/10/17
+ **/
+class ModeConfigTest {
+
+    @Test
+    void getValue() throws PropNotConfigureException {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("appId", "abc");
+        values.put("secret", " ");
+        ModeConfig config = new ModeConfig("oa", values);
+        values.put("appId", "changed");
+
+        assertEquals("abc", config.getValue("appId"));
+        assertEquals("abc", config.getValue("appId", true));
+        assertEquals("", config.getValue("missing", false));
+        assertNull(config.getValue("missing"));
+        assertThrows(PropNotConfigureException.class, () -> config.getValue("secret", true));
+        assertThrows(UnsupportedOperationException.class, () -> config.getValues().put("x", "y"));
+    }
+}
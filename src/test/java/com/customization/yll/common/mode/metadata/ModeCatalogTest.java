@@ -0,0 +1,37 @@
+package com.customization.yll.common.mode.metadata;
+
+import com.customization.yll.common.cache.TableSignature;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 建模目录快照测试
+ * @date 2026/10/17
+ **/
+class ModeCatalogTest {
+
+    @Test
+    void lookup() {
+        Map<Integer, ModeMeta> modes = new HashMap<>();
+        modes.put(8, new ModeMeta(8, -20, "uf_contract"));
+        modes.put(3, new ModeMeta(3, -20, "uf_contract"));
+        modes.put(5, new ModeMeta(5, 0, ""));
+        Map<Integer, Integer> searchModeIds = new HashMap<>();
+        searchModeIds.put(100, 8);
+        searchModeIds.put(101, 9);
+        TableSignature signature = new TableSignature(0, 0, 0);
+        ModeCatalog catalog = new ModeCatalog(modes, searchModeIds, signature, signature, signature, signature);
+
+        assertEquals(3, catalog.getModeByTableName("UF_CONTRACT").getId());
+        assertNull(catalog.getModeByTableName("uf_other"));
+        assertEquals(8, catalog.getSearchMode(100).getId());
+        assertNull(catalog.getSearchMode(101));
+        assertEquals(-20, catalog.getMode(8).getFormId());
+        assertEquals(3, catalog.getModeCount());
+    }
+}
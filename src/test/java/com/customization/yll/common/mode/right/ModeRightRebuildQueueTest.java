@@ -0,0 +1,112 @@
+package com.customization.yll.common.mode.right;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 建模权限重构队列测试
+ * @date 2026/10/17
+ **/
+class ModeRightRebuildQueueTest {
+    private ModeRightRebuildQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.disable();
+        }
+    }
+
+    @Test
+    void runsSynchronouslyWhenDisabled() {
+        List<Integer> rebuilt = new CopyOnWriteArrayList<>();
+        queue = new ModeRightRebuildQueue(task -> rebuilt.add(task.dataId));
+        queue.submit(1, 10, 1);
+        assertEquals(1, rebuilt.size());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    void coalescesPendingDuplicates() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentHashMap<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+        queue = new ModeRightRebuildQueue(task -> {
+            awaitQuietly(release);
+            counts.computeIfAbsent(task.dataId, k -> new AtomicInteger()).incrementAndGet();
+        });
+        queue.enable(1, 10, 1);
+        for (int i = 0; i < 5; i++) {
+            queue.submit(1, 100 + i, 1);
+            queue.submit(1, 100 + i, 1);
+        }
+        release.countDown();
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, queue.getPendingCount());
+        // 第一条数据在阻塞前已取出，再次提交时会重新加入队列
+        int total = counts.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertEquals(5, counts.size());
+        assertTrue(total <= 6);
+    }
+
+    @Test
+    void retriesFailedTasks() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        queue = new ModeRightRebuildQueue(task -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new IllegalStateException("模拟失败");
+            }
+        });
+        queue.enable(1, 10, 3);
+        queue.submit(1, 1, 1);
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void survivesErrors() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        queue = new ModeRightRebuildQueue(task -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new NoClassDefFoundError("模拟错误");
+            }
+        });
+        queue.enable(1, 10, 3);
+        queue.submit(1, 1, 1);
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        queue.submit(1, 2, 1);
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        queue = new ModeRightRebuildQueue(task -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("模拟失败");
+        });
+        queue.enable(2, 10, 2);
+        queue.submit(1, 1, 1);
+        assertTrue(queue.flush(10, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
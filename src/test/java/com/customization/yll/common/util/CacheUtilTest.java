@@ -5,8 +5,14 @@ import org.junit.Before;
 import org.junit.Test;
 import weaver.general.GCONST;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 /**
  * @author yaolilin
@@ -57,4 +63,102 @@ public class CacheUtilTest {
         Assert.assertNull(value);
     }
 
+    @Test
+    public void getOrLoad_singleFlight() throws InterruptedException {
+        CacheUtil.deleteCache("testLoadKey");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Object> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Object value = CacheUtil.getOrLoad("testLoadKey", 60, () -> {
+                    loadCount.incrementAndGet();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "loaded";
+                });
+                synchronized (results) {
+                    results.add(value);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(20, results.size());
+        results.forEach(i -> Assert.assertEquals("loaded", i));
+    }
+
+    @Test
+    public void getOrLoad_refreshAhead() throws InterruptedException {
+        String key = "testRefresh:key1";
+        CacheUtil.enableRefreshAhead("testRefresh:", 0.5);
+        try {
+            CacheUtil.deleteCache(key);
+            AtomicInteger loadCount = new AtomicInteger();
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 4, () -> "v" + loadCount.incrementAndGet()));
+            // 未到刷新时间，不重新加载
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 4, () -> "v" + loadCount.incrementAndGet()));
+            Assert.assertEquals(1, loadCount.get());
+
+            Thread.sleep(2100);
+            // 超过刷新比例后直接返回当前值，后台重新加载
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 4, () -> "v" + loadCount.incrementAndGet()));
+            waitUntil(() -> "v2".equals(CacheUtil.getCache(key)));
+            Assert.assertEquals(2, loadCount.get());
+            Assert.assertEquals("v2", CacheUtil.getOrLoad(key, 4, () -> "v" + loadCount.incrementAndGet()));
+        } finally {
+            CacheUtil.disableRefreshAhead("testRefresh:");
+            CacheUtil.deleteCache(key);
+        }
+    }
+
+    @Test
+    public void getOrLoad_refreshAheadFailure() throws InterruptedException {
+        String key = "testRefresh:key2";
+        CacheUtil.enableRefreshAhead("testRefresh:", 0.1);
+        try {
+            CacheUtil.deleteCache(key);
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 20, () -> "v1"));
+            Thread.sleep(2100);
+            AtomicInteger failCount = new AtomicInteger();
+            Supplier<String> failLoader = () -> {
+                failCount.incrementAndGet();
+                throw new IllegalStateException("load failed");
+            };
+            // 后台刷新失败时仍返回当前值，不抛出异常
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 20, failLoader));
+            waitUntil(() -> failCount.get() == 1);
+            Thread.sleep(100);
+            // 失败后间隔一段时间再重试，期间读取不会再次加载
+            Assert.assertEquals("v1", CacheUtil.getOrLoad(key, 20, failLoader));
+            Thread.sleep(200);
+            Assert.assertEquals(1, failCount.get());
+        } finally {
+            CacheUtil.disableRefreshAhead("testRefresh:");
+            CacheUtil.deleteCache(key);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.customization.yll.common.util;
 
+import com.customization.yll.common.db.RowMapper;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author yaolilin
@@ -45,4 +47,27 @@ public class DbUtilTest {
         Assert.assertTrue(result);
     }
 
+    @Test
+    public void batchInsertByIterator() throws Exception {
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("mc", "批量" + i);
+            item.put("zd1", String.valueOf(i));
+            data.add(item);
+        }
+        int[] counts = DbUtil.batchInsert(data.iterator(), "uf_test_mode", 1000, null);
+        Assert.assertArrayEquals(new int[]{1000, 1000, 500}, counts);
+    }
+
+    @Test
+    public void stream() {
+        List<Object> params = new ArrayList<>();
+        params.add("批量%");
+        try (Stream<Map<String, String>> rows = DbUtil.stream("select id,mc from uf_test_mode where mc like ?",
+                params, 100, RowMapper.toMap())) {
+            rows.forEach(row -> Assert.assertTrue(row.get("mc").startsWith("批量")));
+        }
+    }
+
 }
@@ -6,6 +6,10 @@ import org.junit.Test;
 import weaver.conn.RecordSet;
 import weaver.general.GCONST;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class MultiLanguageUtilTest {
@@ -73,4 +77,28 @@ public class MultiLanguageUtilTest {
                 recordSet);
         assertEquals("韦利东",result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void extractLanguageText() {
+        String text = "~`~`7 韦利东`~`8 wld`~`9 韋利東`~`~";
+        assertEquals("wld", MultiLanguageUtil.extractLanguageText(text, 8));
+        assertEquals("韋利東", MultiLanguageUtil.extractLanguageText(text, 9));
+        assertNull(MultiLanguageUtil.extractLanguageText(text, 10));
+    }
+
+    @Test
+    public void parseMultiLanguageText() {
+        Map<Integer, String> result = MultiLanguageUtil.parseMultiLanguageText("~`~`7 韦利东`~`8 wld`~`9 韋利東`~`~");
+        assertEquals(3, result.size());
+        assertEquals("韦利东", result.get(7));
+        assertEquals("wld", result.get(8));
+        assertTrue(MultiLanguageUtil.parseMultiLanguageText("韦利东").isEmpty());
+    }
+
+    @Test
+    public void analyzeMultiLanguageTexts() {
+        List<String> result = MultiLanguageUtil.analyzeMultiLanguageTexts(Arrays.asList(
+                "~`~`7 韦利东`~`8 wld`~`~", "张三", null), LanguageType.CN, recordSet);
+        assertEquals(Arrays.asList("韦利东", "张三", null), result);
+    }
+}
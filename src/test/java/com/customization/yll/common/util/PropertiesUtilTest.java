@@ -0,0 +1,103 @@
+package com.customization.yll.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import weaver.general.GCONST;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 配置文件工具类测试，配置文件的解析缓存与文件变化后重新解析
+ * @date 2026/10/17
+ **/
+class PropertiesUtilTest {
+    private Path rootPath;
+    private Path propFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rootPath = Files.createTempDirectory("prop-test");
+        GCONST.setRootPath(rootPath.toString() + File.separator);
+        Path propPath = Paths.get(GCONST.getPropertyPath());
+        Files.createDirectories(propPath);
+        propFile = propPath.resolve("test_config.properties");
+        PropertiesUtil.clearParsedProperties();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        PropertiesUtil.clearParsedProperties();
+        Files.deleteIfExists(propFile);
+        Files.deleteIfExists(propFile.getParent());
+        Files.deleteIfExists(propFile.getParent().getParent());
+        Files.deleteIfExists(rootPath);
+    }
+
+    @Test
+    void fetchProperties_chinese() throws Exception {
+        write("name=张三");
+        assertEquals("张三", PropertiesUtil.fetchProperties("test_config").getProperty("name"));
+        assertEquals("张三", PropertiesUtil.getPropValueWithChineseHandle("test_config", "name", true));
+    }
+
+    @Test
+    void fetchProperties_reloadAfterSizeChanged() throws Exception {
+        write("a=1");
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+        write("a=22");
+        assertEquals("22", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+    }
+
+    @Test
+    void fetchProperties_reloadAfterModifiedTimeChanged() throws Exception {
+        write("a=1");
+        FileTime modifiedTime = Files.getLastModifiedTime(propFile);
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+        write("a=2");
+        Files.setLastModifiedTime(propFile, FileTime.fromMillis(modifiedTime.toMillis() + 2000));
+        assertEquals("2", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+    }
+
+    @Test
+    void fetchProperties_cachedWhenFileUnchanged() throws Exception {
+        write("a=1");
+        FileTime modifiedTime = Files.getLastModifiedTime(propFile);
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+        // 修改时间和大小都不变时使用已解析的结果
+        write("a=2");
+        Files.setLastModifiedTime(propFile, modifiedTime);
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+        PropertiesUtil.clearParsedProperties();
+        assertEquals("2", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+    }
+
+    @Test
+    void fetchProperties_returnCopy() throws Exception {
+        write("a=1");
+        Properties properties = PropertiesUtil.fetchProperties("test_config");
+        properties.setProperty("a", "changed");
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+    }
+
+    @Test
+    void fetchProperties_loadAfterFileCreated() throws Exception {
+        assertTrue(PropertiesUtil.fetchProperties("test_config").isEmpty());
+        write("a=1");
+        assertEquals("1", PropertiesUtil.fetchProperties("test_config").getProperty("a"));
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(propFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
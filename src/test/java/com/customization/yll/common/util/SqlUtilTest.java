@@ -4,6 +4,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,4 +28,29 @@ public class SqlUtilTest {
         Assert.assertEquals(" WHERE name = ? and age = ?", whereSql);
         Assert.assertEquals(2, paramValues.size());
     }
+
+    @Test
+    public void buildUpsertSql() {
+        List<String> fields = Arrays.asList("code", "name", "age");
+        List<String> keys = Collections.singletonList("code");
+        Assert.assertEquals("insert into t1 (code,name,age) values(?,?,?) "
+                + "on duplicate key update name=values(name),age=values(age)",
+                SqlUtil.buildUpsertSql("mysql", "t1", fields, keys));
+        Assert.assertEquals("insert into t1 (code,name,age) values(?,?,?) "
+                + "on conflict (code) do update set name=excluded.name,age=excluded.age",
+                SqlUtil.buildUpsertSql("postgresql", "t1", fields, keys));
+        Assert.assertEquals("merge into t1 t using (select ? code,? name,? age from dual) s on (t.code=s.code) "
+                + "when matched then update set t.name=s.name,t.age=s.age "
+                + "when not matched then insert (code,name,age) values (s.code,s.name,s.age)",
+                SqlUtil.buildUpsertSql("oracle", "t1", fields, keys));
+        Assert.assertEquals("merge into t1 as t using (select ? as code,? as name) as s on (t.code=s.code and "
+                + "t.name=s.name) when not matched then insert (code,name) values (s.code,s.name);",
+                SqlUtil.buildUpsertSql("sqlserver", "t1", Arrays.asList("code", "name"),
+                        Arrays.asList("code", "name")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildUpsertSqlWithUnknownKey() {
+        SqlUtil.buildUpsertSql("mysql", "t1", Collections.singletonList("name"), Collections.singletonList("code"));
+    }
 }
@@ -0,0 +1,32 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 选择框选项字典测试
+ * @date 2026/10/17
+ **/
+class SelectItemDictionaryTest {
+
+    @Test
+    void resolve() {
+        SelectItemDictionary dictionary = new SelectItemDictionary(new int[]{2, 0, 1, 2},
+                new String[]{"丙", "甲", "乙", "重复"});
+        assertEquals(3, dictionary.size());
+        assertEquals("甲", dictionary.get(0));
+        assertEquals("丙", dictionary.get(2));
+        assertNull(dictionary.get(3));
+        assertArrayEquals(new String[]{"乙", "", "丙"}, dictionary.resolve(new int[]{1, 5, 2}));
+    }
+
+    @Test
+    void sequence() {
+        SelectItemDictionary dictionary = SelectItemDictionary.ofSequence(new String[]{"是", "否"});
+        assertEquals("否", dictionary.get(1));
+        assertNull(dictionary.get(2));
+        assertEquals(0, SelectItemDictionary.empty().size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.customization.yll.common.workflow.metadata;
+
+import com.customization.yll.common.cache.TableSignature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 流程表单元数据快照测试
+ * @date 2026/10/17
+ **/
+class WorkflowMetadataSnapshotTest {
+    private static final TableSignature SIGNATURE = new TableSignature(1, 1, 1);
+
+    @Test
+    void lookup() {
+        WorkflowMetadataSnapshot snapshot = createSnapshot();
+        assertEquals("formtable_main_10", snapshot.getWorkflowForm(100).getTableName());
+        assertEquals(-10, snapshot.getFormByTableName("FORMTABLE_MAIN_10").getId());
+        assertEquals("mc", snapshot.getField(1).getFieldName());
+        FormMeta form = snapshot.getForm(-10);
+        assertEquals(1, form.getField(null, "MC").getId());
+        assertEquals(1, form.getField("", "mc").getId());
+        assertEquals(2, form.getField("formtable_main_10_dt1", "mc").getId());
+        assertNull(form.getField("formtable_main_10_dt2", "mc"));
+        assertNull(snapshot.getWorkflow(101));
+    }
+
+    @Test
+    void replaceForm() {
+        WorkflowMetadataSnapshot snapshot = createSnapshot();
+        FormMeta changed = new FormMeta(-10, "formtable_main_10", Collections.singletonList(
+                new FormFieldMeta(3, -10, "bh", "", "1", "1", "", "", "编号")));
+        WorkflowMetadataSnapshot updated = snapshot.with(
+                Collections.singletonList(new WorkflowMeta(101, -10, true)),
+                Collections.singletonList(changed), SIGNATURE, SIGNATURE, SIGNATURE);
+        assertNull(updated.getField(1));
+        assertEquals("编号", updated.getField(3).getLabelName());
+        assertEquals("formtable_main_10", updated.getWorkflowForm(101).getTableName());
+        // 原快照不受影响
+        assertNotNull(snapshot.getField(1));
+        assertNull(snapshot.getWorkflow(101));
+    }
+
+    private static WorkflowMetadataSnapshot createSnapshot() {
+        Map<Integer, WorkflowMeta> workflows = new HashMap<>();
+        workflows.put(100, new WorkflowMeta(100, -10, true));
+        Map<Integer, FormMeta> forms = new HashMap<>();
+        forms.put(-10, new FormMeta(-10, "formtable_main_10", Arrays.asList(
+                new FormFieldMeta(1, -10, "mc", "", "1", "1", "", "", "名称"),
+                new FormFieldMeta(2, -10, "mc", "formtable_main_10_dt1", "1", "1", "", "", "明细名称"))));
+        return new WorkflowMetadataSnapshot(workflows, forms, SIGNATURE, SIGNATURE, SIGNATURE);
+    }
+}
@@ -0,0 +1,38 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 流程节点目录测试
+ * @date 2026/10/17
+ **/
+class WorkflowNodeCatalogTest {
+
+    @Test
+    void lookup() {
+        WorkflowNodeCatalog catalog = new WorkflowNodeCatalog(5, Arrays.asList(
+                new WorkflowNodeMeta(11, 5, "申请", "0", "0"),
+                new WorkflowNodeMeta(12, 5, "审批", "0", "1"),
+                new WorkflowNodeMeta(13, 5, "审批", "0", "1"),
+                new WorkflowNodeMeta(14, 5, "归档", "0", "3")));
+        assertEquals(11, catalog.getCreateNode().getId());
+        assertEquals(12, catalog.getNodeByName("审批").getId());
+        assertEquals("归档", catalog.getNode(14).getNodeName());
+        assertNull(catalog.getNode(15));
+        assertNull(catalog.getNodeByName("不存在"));
+        assertEquals("1", catalog.getNode(13).toNodeInfo().getNodeType());
+    }
+
+    @Test
+    void withoutCreateNode() {
+        WorkflowNodeCatalog catalog = new WorkflowNodeCatalog(5, Arrays.asList(
+                new WorkflowNodeMeta(12, 5, "审批", "0", "1")));
+        assertNull(catalog.getCreateNode());
+        assertEquals(1, catalog.getNodes().size());
+    }
+}
@@ -0,0 +1,39 @@
+package com.customization.yll.common.workflow.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author 姚礼林
+ * @desc 流程版本索引测试
+ * @date 2026/10/17
+ **/
+class WorkflowVersionIndexTest {
+
+    /**
+     * 流程 10、25、31 为同一流程的三个版本，生效版本为 31；流程 12 没有其他版本
+     */
+    private final WorkflowVersionIndex index = WorkflowVersionIndex.build(new int[]{31, 12, 10, 25},
+            new int[]{31, 0, 31, 31}, new WorkflowVersionSignature(4, 31, "31"));
+
+    @Test
+    void allVersions() {
+        assertEquals(Arrays.asList(10, 25, 31), index.getAllVersions(25));
+        assertEquals(Collections.singletonList(12), index.getAllVersions(12));
+        assertTrue(index.getAllVersions(99).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void currentOrAfter() {
+        assertTrue(index.isCurrentOrAfter(10, 31));
+        assertTrue(index.isCurrentOrAfter(25, 25));
+        assertFalse(index.isCurrentOrAfter(31, 25));
+        assertFalse(index.isCurrentOrAfter(10, 12));
+        assertFalse(index.isCurrentOrAfter(10, 99));
+    }
+}